@@ -1,5 +1,6 @@
 package com.mycompany.myapp.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,9 +11,275 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Batch batch = new Batch();
+
+    private final Export export = new Export();
+
+    private final Cache cache = new Cache();
+
+    private final Pagination pagination = new Pagination();
+
+    private final JwtCache jwtCache = new JwtCache();
+
     // jhipster-needle-application-properties-property
 
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
+    public static class Batch {
+
+        /**
+         * Number of cars written per statement batch, and per transaction, by the batch endpoints.
+         */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Export {
+
+        /**
+         * Number of rows fetched from the database cursor per round-trip by the streaming export, and requested downstream.
+         */
+        private int fetchSize = 1000;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Whether cars read by id are cached in memory.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of cars kept in the cache.
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * Time after which a cached car is read again from the database.
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        /**
+         * Time the shared caches, like the gateway, serve a car or a page of cars without asking again, sent as
+         * {@code s-maxage}: the browsers revalidate them with their {@code ETag}.
+         */
+        private Duration sharedMaxAge = Duration.ofSeconds(10);
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getSharedMaxAge() {
+            return sharedMaxAge;
+        }
+
+        public void setSharedMaxAge(Duration sharedMaxAge) {
+            this.sharedMaxAge = sharedMaxAge;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public static class Invalidation {
+
+            /**
+             * Whether the cars evicted by this instance are evicted from the other car instances registered in Eureka.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of ids sent to the other instances in one request.
+             */
+            private int maxBatchSize = 256;
+
+            /**
+             * Maximum time an evicted id waits for other ids before being sent.
+             */
+            private Duration maxDelay = Duration.ofMillis(50);
+
+            /**
+             * Timeout of a request to another instance.
+             */
+            private Duration timeout = Duration.ofSeconds(2);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxBatchSize() {
+                return maxBatchSize;
+            }
+
+            public void setMaxBatchSize(int maxBatchSize) {
+                this.maxBatchSize = maxBatchSize;
+            }
+
+            public Duration getMaxDelay() {
+                return maxDelay;
+            }
+
+            public void setMaxDelay(Duration maxDelay) {
+                this.maxDelay = maxDelay;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+    }
+
+    public static class Pagination {
+
+        /**
+         * How the total count of the paginated car lists is computed.
+         */
+        private CountStrategy countStrategy = CountStrategy.EXACT;
+
+        /**
+         * Interval between two exact counts, with the {@code cached} strategy.
+         */
+        private Duration countRefreshInterval = Duration.ofSeconds(30);
+
+        public CountStrategy getCountStrategy() {
+            return countStrategy;
+        }
+
+        public void setCountStrategy(CountStrategy countStrategy) {
+            this.countStrategy = countStrategy;
+        }
+
+        public Duration getCountRefreshInterval() {
+            return countRefreshInterval;
+        }
+
+        public void setCountRefreshInterval(Duration countRefreshInterval) {
+            this.countRefreshInterval = countRefreshInterval;
+        }
+
+        public enum CountStrategy {
+            /**
+             * {@code SELECT COUNT(*)} on every request.
+             */
+            EXACT,
+            /**
+             * An exact count refreshed periodically, and kept up to date by the writes of this instance in between.
+             */
+            CACHED,
+            /**
+             * The row count estimated by the database table statistics.
+             */
+            ESTIMATED,
+        }
+    }
+
+    public static class JwtCache {
+
+        /**
+         * Whether the tokens already verified are cached, so a token is verified once per car instance until it expires.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of verified tokens kept in the cache.
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * Maximum time a verified token is cached, even if it expires later.
+         */
+        private Duration maximumTimeToLive = Duration.ofMinutes(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getMaximumTimeToLive() {
+            return maximumTimeToLive;
+        }
+
+        public void setMaximumTimeToLive(Duration maximumTimeToLive) {
+            this.maximumTimeToLive = maximumTimeToLive;
+        }
+    }
+
     // jhipster-needle-application-properties-property-class
 }
@@ -54,6 +54,7 @@ public class SecurityConfiguration {
                 authz
                     .pathMatchers("/api/authenticate").permitAll()
                     .pathMatchers("/api/admin/**").hasAuthority(AuthoritiesConstants.ADMIN)
+                    .pathMatchers("/api/internal/**").hasAuthority(AuthoritiesConstants.INTERNAL)
                     .pathMatchers("/api/**").authenticated()
                     .pathMatchers("/v3/api-docs/**").hasAuthority(AuthoritiesConstants.ADMIN)
                     .pathMatchers("/management/health").permitAll()
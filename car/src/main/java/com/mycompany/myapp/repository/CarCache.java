@@ -0,0 +1,152 @@
+package com.mycompany.myapp.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Car;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * In-process read-through cache of the {@link Car} entities, by id.
+ * <p>
+ * The cache is bounded by size with Caffeine's W-TinyLFU eviction policy, and entries expire after
+ * {@code application.cache.time-to-live}. Hit, miss and eviction counts are published to Micrometer
+ * under the {@value #CACHE_NAME} cache name. It is disabled with {@code application.cache.enabled: false}.
+ */
+@Component
+public class CarCache {
+
+    public static final String CACHE_NAME = "car";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CarCache.class);
+
+    private static final Duration EMIT_TIMEOUT = Duration.ofMillis(100);
+
+    private final Cache<Long, Car> cache;
+
+    /**
+     * Incremented on every eviction, so a load which started before an eviction does not cache a stale car.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Sinks.Many<Long> localEvictions = Sinks.many().multicast().directBestEffort();
+
+    private final Sinks.Many<Long> localClears = Sinks.many().multicast().directBestEffort();
+
+    public CarCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Cache properties = applicationProperties.getCache();
+        if (properties.isEnabled()) {
+            LOG.debug("Caching up to {} cars for {}", properties.getMaximumSize(), properties.getTimeToLive());
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns the cached car, or loads it and caches it.
+     * @param id the id of the car.
+     * @param loader reads the car from the database, on a cache miss.
+     * @return the car, or an empty {@link Mono} if it does not exist.
+     */
+    public Mono<Car> get(Long id, Function<Long, Mono<Car>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        return Mono.defer(() -> {
+            Car cached = cache.getIfPresent(id);
+            if (cached != null) {
+                // callers are free to modify the returned car
+                return Mono.just(copy(cached));
+            }
+            long evictionsBeforeLoad = evictions.get();
+            return loader
+                .apply(id)
+                .doOnNext(car -> {
+                    if (evictions.get() == evictionsBeforeLoad) {
+                        cache.put(id, copy(car));
+                    }
+                });
+        });
+    }
+
+    /**
+     * Evicts a car, after it has been modified or deleted, and publishes its id to {@link #localEvictions()}.
+     * @param id the id of the car.
+     */
+    public void evict(Long id) {
+        if (cache != null && id != null) {
+            evictLocally(id);
+            localEvictions.emitNext(id, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+        }
+    }
+
+    /**
+     * Evicts a car which has been modified by another instance, without publishing its id.
+     * @param id the id of the car.
+     */
+    public void evictLocally(Long id) {
+        if (cache != null && id != null) {
+            evictions.incrementAndGet();
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Returns the ids of the cars evicted by {@link #evict(Long)}, so they can be evicted from the other instances too.
+     * Ids evicted while nobody is subscribed are dropped.
+     * @return the {@link Flux} of evicted ids.
+     */
+    public Flux<Long> localEvictions() {
+        return localEvictions.asFlux();
+    }
+
+    /**
+     * Evicts all the cars, after they have been deleted, and publishes the number of evicted cars to {@link #localClears()}.
+     */
+    public void evictAll() {
+        if (cache != null) {
+            long evicted = cache.estimatedSize();
+            evictAllLocally();
+            localClears.emitNext(evicted, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+        }
+    }
+
+    /**
+     * Evicts all the cars, after they have been deleted by another instance, without publishing it.
+     */
+    public void evictAllLocally() {
+        if (cache != null) {
+            evictions.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Returns the number of cars evicted by each {@link #evictAll()}, so all the cars can be evicted from the other instances
+     * too. Evictions done while nobody is subscribed are dropped.
+     * @return the {@link Flux} of numbers of evicted cars.
+     */
+    public Flux<Long> localClears() {
+        return localClears.asFlux();
+    }
+
+    private static Car copy(Car car) {
+        return new Car().id(car.getId()).name(car.getName()).age(car.getAge()).isBroken(car.getIsBroken());
+    }
+}
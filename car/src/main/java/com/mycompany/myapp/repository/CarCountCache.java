@@ -0,0 +1,93 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cached total count of the cars, for the {@code cached} pagination count strategy.
+ * <p>
+ * The count is read from the database at most once per {@code application.pagination.count-refresh-interval}, and
+ * the rows inserted and deleted by this instance in between are applied to it incrementally, once committed. Writes from other
+ * instances are only seen after the next refresh.
+ */
+@Component
+public class CarCountCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CarCountCache.class);
+
+    private static final long UNKNOWN = -1;
+
+    private final long refreshIntervalNanos;
+
+    private final AtomicLong count = new AtomicLong(UNKNOWN);
+
+    private final AtomicLong countedAt = new AtomicLong();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public CarCountCache(ApplicationProperties applicationProperties) {
+        Duration refreshInterval = applicationProperties.getPagination().getCountRefreshInterval();
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Returns the cached count, and refreshes it if it is older than the refresh interval.
+     * Only the first call waits for the database: a stale count is returned while it is being refreshed.
+     * @param exactCount counts the cars in the database.
+     * @return the number of cars.
+     */
+    public Mono<Long> get(Supplier<Mono<Long>> exactCount) {
+        return Mono.defer(() -> {
+            long cached = count.get();
+            boolean stale = System.nanoTime() - countedAt.get() > refreshIntervalNanos;
+            if (cached == UNKNOWN) {
+                return refresh(exactCount);
+            }
+            if (stale && refreshing.compareAndSet(false, true)) {
+                refresh(exactCount)
+                    .doFinally(signal -> refreshing.set(false))
+                    .subscribe(null, e -> LOG.warn("Could not refresh the car count, keeping {}: {}", cached, e.getMessage()));
+            }
+            return Mono.just(cached);
+        });
+    }
+
+    /**
+     * Adds inserted cars to the count.
+     * @param inserted the number of inserted cars.
+     */
+    public void add(long inserted) {
+        count.getAndUpdate(value -> value == UNKNOWN ? UNKNOWN : value + inserted);
+    }
+
+    /**
+     * Removes deleted cars from the count.
+     * @param deleted the number of deleted cars.
+     */
+    public void remove(long deleted) {
+        count.getAndUpdate(value -> value == UNKNOWN ? UNKNOWN : Math.max(0, value - deleted));
+    }
+
+    /**
+     * Forgets the count, so the next call reads it from the database.
+     */
+    public void reset() {
+        count.set(UNKNOWN);
+    }
+
+    private Mono<Long> refresh(Supplier<Mono<Long>> exactCount) {
+        return exactCount
+            .get()
+            .doOnNext(exact -> {
+                count.set(exact);
+                countedAt.set(System.nanoTime());
+            });
+    }
+}
@@ -1,6 +1,7 @@
 package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.Car;
+import java.util.List;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
@@ -15,27 +16,69 @@ import reactor.core.publisher.Mono;
 public interface CarRepository extends ReactiveCrudRepository<Car, Long>, CarRepositoryInternal {
     Flux<Car> findAllBy(Pageable pageable);
 
+    @Override
+    Flux<Car> findAllAfter(Long afterId, int size);
+
     @Override
     <S extends Car> Mono<S> save(S entity);
 
+    @Override
+    Flux<Long> insertAll(List<Car> cars);
+
+    @Override
+    Mono<Long> updateAll(List<Car> cars);
+
+    @Override
+    Mono<Long> countForPaging();
+
     @Override
     Flux<Car> findAll();
 
+    @Override
+    Flux<Car> streamAll(int fetchSize);
+
     @Override
     Mono<Car> findById(Long id);
 
+    @Override
+    Mono<Car> findByIdForUpdate(Long id);
+
     @Override
     Mono<Void> deleteById(Long id);
+
+    @Override
+    Mono<Void> delete(Car entity);
+
+    @Override
+    Mono<Void> deleteAll();
 }
 
 interface CarRepositoryInternal {
     <S extends Car> Mono<S> save(S entity);
 
+    Flux<Long> insertAll(List<Car> cars);
+
+    Mono<Long> updateAll(List<Car> cars);
+
     Flux<Car> findAllBy(Pageable pageable);
 
+    Flux<Car> findAllAfter(Long afterId, int size);
+
+    Mono<Long> countForPaging();
+
     Flux<Car> findAll();
 
+    Flux<Car> streamAll(int fetchSize);
+
     Mono<Car> findById(Long id);
+
+    Mono<Car> findByIdForUpdate(Long id);
+
+    Mono<Void> deleteById(Long id);
+
+    Mono<Void> delete(Car entity);
+
+    Mono<Void> deleteAll();
     // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
     // Flux<Car> findAllBy(Pageable pageable, Criteria criteria);
 }
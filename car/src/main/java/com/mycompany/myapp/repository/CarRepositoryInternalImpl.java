@@ -1,25 +1,38 @@
 package com.mycompany.myapp.repository;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.domain.Car;
 import com.mycompany.myapp.repository.rowmapper.CarRowMapper;
 import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Result;
 import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
-import org.springframework.data.relational.core.sql.Comparison;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.LockMode;
+import org.springframework.data.relational.core.sql.OrderByField;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.r2dbc.core.binding.BindMarker;
+import org.springframework.r2dbc.core.binding.BindMarkers;
+import org.springframework.r2dbc.core.binding.BindTarget;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -32,17 +45,31 @@ class CarRepositoryInternalImpl extends SimpleR2dbcRepository<Car, Long> impleme
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final EntityManager entityManager;
+    private final R2dbcDialect dialect;
+    private final CarCache carCache;
+    private final CarCountCache carCountCache;
+    private final ApplicationProperties.Pagination.CountStrategy countStrategy;
 
     private final CarRowMapper carMapper;
 
     private static final Table entityTable = Table.aliased("car", EntityManager.ENTITY_ALIAS);
 
+    private static final String FIND_BY_ID_SHAPE = "car.findById";
+    private static final String FIND_BY_ID_FOR_UPDATE_SHAPE = "car.findByIdForUpdate";
+    private static final String FIND_FIRST_SHAPE = "car.findFirst";
+    private static final String FIND_ALL_AFTER_SHAPE = "car.findAllAfter";
+    private static final String STREAM_ALL_SHAPE = "car.streamAll";
+
     public CarRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
         CarRowMapper carMapper,
         R2dbcEntityOperations entityOperations,
-        R2dbcConverter converter
+        R2dbcConverter converter,
+        R2dbcDialect dialect,
+        CarCache carCache,
+        CarCountCache carCountCache,
+        ApplicationProperties applicationProperties
     ) {
         super(
             new MappingRelationalEntityInformation(converter.getMappingContext().getRequiredPersistentEntity(Car.class)),
@@ -53,6 +80,10 @@ class CarRepositoryInternalImpl extends SimpleR2dbcRepository<Car, Long> impleme
         this.r2dbcEntityTemplate = template;
         this.entityManager = entityManager;
         this.carMapper = carMapper;
+        this.dialect = dialect;
+        this.carCache = carCache;
+        this.carCountCache = carCountCache;
+        this.countStrategy = applicationProperties.getPagination().getCountStrategy();
     }
 
     @Override
@@ -60,6 +91,56 @@ class CarRepositoryInternalImpl extends SimpleR2dbcRepository<Car, Long> impleme
         return createQuery(pageable, null).all();
     }
 
+    /**
+     * Keyset pagination: returns at most {@code size} cars with an id greater than {@code afterId}, ordered by id.
+     * The query seeks on the primary key index, so the cost does not depend on how deep the page is.
+     * @param afterId the last id of the previous page, or null to start from the beginning.
+     * @param size the maximum number of cars to return.
+     * @return the cars of the page.
+     */
+    @Override
+    public Flux<Car> findAllAfter(Long afterId, int size) {
+        Column idColumn = entityTable.column("id");
+        if (afterId == null) {
+            String select = entityManager.createSelectWithLimit(FIND_FIRST_SHAPE, () ->
+                Select.builder()
+                    .select(CarSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS))
+                    .from(entityTable)
+                    .orderBy(OrderByField.from(idColumn).asc())
+                    .build()
+            );
+            return db.sql(select).bind("limit", size).map(this::process).all();
+        }
+        String select = entityManager.createSelectWithLimit(FIND_ALL_AFTER_SHAPE, () ->
+            Select.builder()
+                .select(CarSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS))
+                .from(entityTable)
+                .where(Conditions.isGreater(idColumn, Conditions.just(":afterId")))
+                .orderBy(OrderByField.from(idColumn).asc())
+                .build()
+        );
+        return db.sql(select).bind("afterId", afterId).bind("limit", size).map(this::process).all();
+    }
+
+    /**
+     * Counts the cars for the pagination headers, with the configured {@code application.pagination.count-strategy}.
+     * @return the exact, cached or estimated number of cars.
+     */
+    @Override
+    public Mono<Long> countForPaging() {
+        return switch (countStrategy) {
+            case EXACT -> count();
+            case CACHED -> carCountCache.get(this::count);
+            case ESTIMATED -> db
+                .sql(
+                    "SELECT CAST(table_rows AS SIGNED) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'car'"
+                )
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+        };
+    }
+
     RowsFetchSpec<Car> createQuery(Pageable pageable, Condition whereClause) {
         List<Expression> columns = CarSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
@@ -73,10 +154,53 @@ class CarRepositoryInternalImpl extends SimpleR2dbcRepository<Car, Long> impleme
         return findAllBy(null);
     }
 
+    /**
+     * Streams all the cars from the database cursor, {@code fetchSize} rows being fetched per round-trip.
+     * Rows are only fetched when requested downstream, so the whole table is never held in memory.
+     * @param fetchSize the number of rows to fetch per round-trip.
+     * @return all the cars.
+     */
+    @Override
+    public Flux<Car> streamAll(int fetchSize) {
+        String select = entityManager.createSelect(STREAM_ALL_SHAPE, () ->
+            Select.builder().select(CarSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS)).from(entityTable).build()
+        );
+        return db.sql(select).filter(statement -> statement.fetchSize(fetchSize)).map(this::process).all();
+    }
+
     @Override
     public Mono<Car> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return carCache.get(id, this::selectById);
+    }
+
+    /**
+     * Reads a car from the database, bypassing the cache, and locks its row until the end of the current transaction, so a
+     * concurrent write of the car waits for this transaction to end.
+     * @param id the id of the car.
+     * @return the current car, or an empty {@link Mono} if it does not exist.
+     */
+    @Override
+    public Mono<Car> findByIdForUpdate(Long id) {
+        String select = entityManager.createSelect(FIND_BY_ID_FOR_UPDATE_SHAPE, () ->
+            Select.builder()
+                .select(CarSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS))
+                .from(entityTable)
+                .where(Conditions.isEqual(entityTable.column("id"), Conditions.just(":id")))
+                .lock(LockMode.PESSIMISTIC_WRITE)
+                .build()
+        );
+        return db.sql(select).bind("id", id).map(this::process).one();
+    }
+
+    private Mono<Car> selectById(Long id) {
+        String select = entityManager.createSelect(FIND_BY_ID_SHAPE, () ->
+            Select.builder()
+                .select(CarSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS))
+                .from(entityTable)
+                .where(Conditions.isEqual(entityTable.column("id"), Conditions.just(":id")))
+                .build()
+        );
+        return db.sql(select).bind("id", id).map(this::process).one();
     }
 
     private Car process(Row row, RowMetadata metadata) {
@@ -86,6 +210,166 @@ class CarRepositoryInternalImpl extends SimpleR2dbcRepository<Car, Long> impleme
 
     @Override
     public <S extends Car> Mono<S> save(S entity) {
-        return super.save(entity);
+        boolean isNew = entity.getId() == null;
+        return super.save(entity).flatMap(result ->
+            TransactionCallbacks.afterCommit(() -> {
+                carCache.evict(result.getId());
+                if (isNew) {
+                    carCountCache.add(1);
+                }
+            }).thenReturn(result)
+        );
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return r2dbcEntityTemplate
+            .delete(Car.class)
+            .matching(Query.query(Criteria.where("id").is(id)))
+            .all()
+            .flatMap(deleted ->
+                TransactionCallbacks.afterCommit(() -> {
+                    carCache.evict(id);
+                    carCountCache.remove(deleted);
+                })
+            );
+    }
+
+    @Override
+    public Mono<Void> delete(Car entity) {
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return super.deleteAll().then(
+            TransactionCallbacks.afterCommit(() -> {
+                carCache.evictAll();
+                carCountCache.reset();
+            })
+        );
+    }
+
+    /**
+     * Inserts the given cars with a single batched statement, one binding per car.
+     * @param cars the cars to insert, their id must be null.
+     * @return the generated ids, in the order of the given cars.
+     */
+    @Override
+    public Flux<Long> insertAll(List<Car> cars) {
+        if (cars.isEmpty()) {
+            return Flux.empty();
+        }
+        return db.inConnectionMany(connection -> {
+            BindMarkers bindMarkers = dialect.getBindMarkersFactory().create();
+            BindMarker name = bindMarkers.next("name");
+            BindMarker age = bindMarkers.next("age");
+            BindMarker isBroken = bindMarkers.next("is_broken");
+            Statement statement = connection
+                .createStatement(
+                    "INSERT INTO car (name, age, is_broken) VALUES (" +
+                    name.getPlaceholder() +
+                    ", " +
+                    age.getPlaceholder() +
+                    ", " +
+                    isBroken.getPlaceholder() +
+                    ")"
+                )
+                .returnGeneratedValues("id");
+            BindTarget target = new StatementBindTarget(statement);
+            for (int i = 0; i < cars.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                bindUpdatableColumns(target, cars.get(i), name, age, isBroken);
+            }
+            AtomicLong inserted = new AtomicLong();
+            return Flux.from(statement.execute())
+                .concatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)))
+                .doOnNext(generatedId -> inserted.incrementAndGet())
+                .concatWith(TransactionCallbacks.afterCommit(() -> carCountCache.add(inserted.get())).then(Mono.empty()));
+        });
+    }
+
+    /**
+     * Updates the given cars with a single batched statement, one binding per car.
+     * @param cars the cars to update, their id must not be null.
+     * @return the number of updated rows.
+     */
+    @Override
+    public Mono<Long> updateAll(List<Car> cars) {
+        if (cars.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return db
+            .inConnection(connection -> {
+                BindMarkers bindMarkers = dialect.getBindMarkersFactory().create();
+                BindMarker name = bindMarkers.next("name");
+                BindMarker age = bindMarkers.next("age");
+                BindMarker isBroken = bindMarkers.next("is_broken");
+                BindMarker id = bindMarkers.next("id");
+                Statement statement = connection.createStatement(
+                    "UPDATE car SET name = " +
+                    name.getPlaceholder() +
+                    ", age = " +
+                    age.getPlaceholder() +
+                    ", is_broken = " +
+                    isBroken.getPlaceholder() +
+                    " WHERE id = " +
+                    id.getPlaceholder()
+                );
+                BindTarget target = new StatementBindTarget(statement);
+                for (int i = 0; i < cars.size(); i++) {
+                    if (i > 0) {
+                        statement.add();
+                    }
+                    Car car = cars.get(i);
+                    bindUpdatableColumns(target, car, name, age, isBroken);
+                    id.bind(target, car.getId());
+                }
+                return Flux.from(statement.execute()).concatMap(Result::getRowsUpdated).reduce(0L, Long::sum);
+            })
+            .flatMap(rowsUpdated ->
+                TransactionCallbacks.afterCommit(() -> cars.forEach(car -> carCache.evict(car.getId()))).thenReturn(rowsUpdated)
+            );
+    }
+
+    private static void bindUpdatableColumns(BindTarget target, Car car, BindMarker name, BindMarker age, BindMarker isBroken) {
+        bind(target, name, car.getName(), String.class);
+        bind(target, age, car.getAge(), BigDecimal.class);
+        bind(target, isBroken, car.getIsBroken(), Boolean.class);
+    }
+
+    private static void bind(BindTarget target, BindMarker marker, Object value, Class<?> type) {
+        if (value == null) {
+            marker.bindNull(target, type);
+        } else {
+            marker.bind(target, value);
+        }
+    }
+
+    /**
+     * Binds the markers of the dialect, by name or by index, to a statement created on the connection.
+     */
+    private record StatementBindTarget(Statement statement) implements BindTarget {
+        @Override
+        public void bind(String identifier, Object value) {
+            statement.bind(identifier, value);
+        }
+
+        @Override
+        public void bind(int index, Object value) {
+            statement.bind(index, value);
+        }
+
+        @Override
+        public void bindNull(String identifier, Class<?> type) {
+            statement.bindNull(identifier, type);
+        }
+
+        @Override
+        public void bindNull(int index, Class<?> type) {
+            statement.bindNull(index, type);
+        }
     }
 }
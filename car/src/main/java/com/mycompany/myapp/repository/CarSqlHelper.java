@@ -2,19 +2,46 @@ package com.mycompany.myapp.repository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
 import org.springframework.data.relational.core.sql.Table;
 
 public class CarSqlHelper {
 
+    public static final int ID = 0;
+    public static final int NAME = 1;
+    public static final int AGE = 2;
+    public static final int IS_BROKEN = 3;
+
+    private static final String[] COLUMN_NAMES = { "id", "name", "age", "is_broken" };
+
+    private static final Map<String, String[]> ALIASES = new ConcurrentHashMap<>();
+
     public static List<Expression> getColumns(Table table, String columnPrefix) {
+        String[] aliases = getAliases(columnPrefix);
         List<Expression> columns = new ArrayList<>();
-        columns.add(Column.aliased("id", table, columnPrefix + "_id"));
-        columns.add(Column.aliased("name", table, columnPrefix + "_name"));
-        columns.add(Column.aliased("age", table, columnPrefix + "_age"));
-        columns.add(Column.aliased("is_broken", table, columnPrefix + "_is_broken"));
+        for (int i = 0; i < COLUMN_NAMES.length; i++) {
+            columns.add(Column.aliased(COLUMN_NAMES[i], table, aliases[i]));
+        }
 
         return columns;
     }
+
+    /**
+     * Returns the column aliases used for the given prefix, indexed by {@link #ID}, {@link #NAME}, {@link #AGE} and
+     * {@link #IS_BROKEN}. The table is built once per prefix, so mapping a row does not concatenate column names.
+     * @param columnPrefix the prefix of the column aliases.
+     * @return the column aliases, which must not be modified.
+     */
+    public static String[] getAliases(String columnPrefix) {
+        return ALIASES.computeIfAbsent(columnPrefix, prefix -> {
+            String[] aliases = new String[COLUMN_NAMES.length];
+            for (int i = 0; i < COLUMN_NAMES.length; i++) {
+                aliases[i] = prefix + "_" + COLUMN_NAMES[i];
+            }
+            return aliases;
+        });
+    }
 }
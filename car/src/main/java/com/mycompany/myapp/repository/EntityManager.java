@@ -2,7 +2,10 @@ package com.mycompany.myapp.repository;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -36,6 +39,12 @@ public class EntityManager {
     public static final String ENTITY_ALIAS = "e";
     public static final String ALIAS_PREFIX = "e_";
 
+    /**
+     * Maximum number of rendered SQL templates kept by {@link #createSelect(String, Supplier)} and
+     * {@link #createSelectWithLimit(String, Supplier)}.
+     */
+    public static final int SQL_TEMPLATE_CACHE_SIZE = 64;
+
     public static class LinkTable {
 
         final String tableName;
@@ -57,6 +66,13 @@ public class EntityManager {
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final StatementMapper statementMapper;
 
+    private final Map<String, String> sqlTemplates = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > SQL_TEMPLATE_CACHE_SIZE;
+        }
+    };
+
     public EntityManager(SqlRenderer sqlRenderer, UpdateMapper updateMapper, R2dbcEntityTemplate r2dbcEntityTemplate) {
         this.sqlRenderer = sqlRenderer;
         this.updateMapper = updateMapper;
@@ -137,6 +153,41 @@ public class EntityManager {
         return sqlRenderer.render(select);
     }
 
+    /**
+     * Returns the SQL for a parameterized query shape, rendering it only the first time the shape is requested.
+     * The rendered statement must only contain named bind markers (like {@code :id}), the values being bound with
+     * {@link org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec#bind(String, Object)}, so the same SQL
+     * string is sent to the driver for every call, and the server-side prepared statement can be reused.
+     * @param shape the key identifying the query shape, it must not depend on the bound values.
+     * @param select creates the representation of the select statement, on a cache miss.
+     * @return the generated SQL select.
+     */
+    public String createSelect(String shape, Supplier<Select> select) {
+        return sqlTemplate(shape, () -> createSelect(select.get()));
+    }
+
+    /**
+     * Returns the SQL for a parameterized query shape like {@link #createSelect(String, Supplier)}, followed by a
+     * {@code LIMIT :limit} bind marker, as the {@link Select} builder only renders the limit as a literal.
+     * @param shape the key identifying the query shape, it must not depend on the bound values, the limit included.
+     * @param select creates the representation of the select statement, without limit, on a cache miss.
+     * @return the generated SQL select, whose limit is bound with {@code bind("limit", ...)}.
+     */
+    public String createSelectWithLimit(String shape, Supplier<Select> select) {
+        return sqlTemplate(shape, () -> createSelect(select.get()) + " LIMIT :limit");
+    }
+
+    private String sqlTemplate(String shape, Supplier<String> render) {
+        synchronized (sqlTemplates) {
+            String sql = sqlTemplates.get(shape);
+            if (sql == null) {
+                sql = render.get();
+                sqlTemplates.put(shape, sql);
+            }
+            return sql;
+        }
+    }
+
     /**
      * Delete all the entity with the given type, and return the number of deletions.
      * @param entityType the entity type which holds the table name.
@@ -1,6 +1,7 @@
 package com.mycompany.myapp.repository.rowmapper;
 
 import com.mycompany.myapp.domain.Car;
+import com.mycompany.myapp.repository.CarSqlHelper;
 import io.r2dbc.spi.Row;
 import java.math.BigDecimal;
 import java.util.function.BiFunction;
@@ -20,15 +21,17 @@ public class CarRowMapper implements BiFunction<Row, String, Car> {
 
     /**
      * Take a {@link Row} and a column prefix, and extract all the fields.
+     * The column aliases come from {@link CarSqlHelper#getAliases(String)}, the same table used to build the select.
      * @return the {@link Car} stored in the database.
      */
     @Override
     public Car apply(Row row, String prefix) {
+        String[] aliases = CarSqlHelper.getAliases(prefix);
         Car entity = new Car();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
-        entity.setName(converter.fromRow(row, prefix + "_name", String.class));
-        entity.setAge(converter.fromRow(row, prefix + "_age", BigDecimal.class));
-        entity.setIsBroken(converter.fromRow(row, prefix + "_is_broken", Boolean.class));
+        entity.setId(converter.fromRow(row, aliases[CarSqlHelper.ID], Long.class));
+        entity.setName(converter.fromRow(row, aliases[CarSqlHelper.NAME], String.class));
+        entity.setAge(converter.fromRow(row, aliases[CarSqlHelper.AGE], BigDecimal.class));
+        entity.setIsBroken(converter.fromRow(row, aliases[CarSqlHelper.IS_BROKEN], Boolean.class));
         return entity;
     }
 }
@@ -1,6 +1,9 @@
 package com.mycompany.myapp.repository.rowmapper;
 
 import io.r2dbc.spi.Row;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
@@ -18,6 +21,11 @@ public class ColumnConverter implements ColumnConverterReactive {
     private final ConversionService conversionService;
     private final R2dbcCustomConversions conversions;
 
+    /**
+     * Conversion plans, by target class, column name and native type of the column.
+     */
+    private final Map<PlanKey, ColumnPlan<?>> plans = new ConcurrentHashMap<>();
+
     public ColumnConverter(R2dbcCustomConversions conversions, R2dbcConverter r2dbcConverter) {
         this.conversionService = r2dbcConverter.getConversionService();
         this.conversions = conversions;
@@ -50,19 +58,65 @@ public class ColumnConverter implements ColumnConverterReactive {
 
     /**
      * Convert a value from the {@link Row} to a type - throws an exception, if it's impossible.
+     * <p>
+     * The native type of the column is read from the row metadata, and the plan for that native type, column and target
+     * type is created once and reused for the next rows: either the driver decodes the target type directly, or the
+     * native value is converted with a conversion resolved once. Another query returning another native type under the
+     * same column name gets its own plan.
      * @param row which contains the column values.
      * @param target class.
      * @param columnName the name of the column which to convert.
      * @param <T> the parameter for the intended type.
      * @return the value which can be constructed from the input.
      */
+    @SuppressWarnings("unchecked")
     public <T> T fromRow(Row row, String columnName, Class<T> target) {
-        try {
-            // try, directly the driver
-            return row.get(columnName, target);
-        } catch (Exception e) {
-            Object obj = row.get(columnName);
-            return convert(obj, target);
+        PlanKey key = new PlanKey(target, columnName, row.getMetadata().getColumnMetadata(columnName).getJavaType());
+        ColumnPlan<T> plan = (ColumnPlan<T>) plans.get(key);
+        if (plan == null) {
+            plan = createPlan(key.nativeType(), target);
+            plans.put(key, plan);
+        }
+        return plan.read(row, columnName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ColumnPlan<T> createPlan(@Nullable Class<?> nativeType, Class<T> target) {
+        if (nativeType != null && ClassUtils.isAssignable(target, nativeType)) {
+            // the driver decodes the target type directly
+            return (row, columnName) -> row.get(columnName, target);
+        }
+        Function<Object, T> conversion = createConversion(nativeType, target);
+        return (row, columnName) -> {
+            Object value = row.get(columnName);
+            if (value == null || ClassUtils.isAssignableValue(target, value)) {
+                return (T) value;
+            }
+            return conversion.apply(value);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Function<Object, T> createConversion(@Nullable Class<?> nativeType, Class<T> target) {
+        if (nativeType != null && conversions.hasCustomReadTarget(nativeType, target)) {
+            return value -> conversionService.convert(value, target);
+        }
+        if (Enum.class.isAssignableFrom(target)) {
+            return value -> (T) Enum.valueOf((Class<Enum>) target, value.toString());
+        }
+        if (nativeType == null) {
+            return value -> convert(value, target);
         }
+        return value -> conversionService.convert(value, target);
+    }
+
+    private record PlanKey(Class<?> target, String columnName, @Nullable Class<?> nativeType) {}
+
+    /**
+     * Reads a column of a {@link Row} as a given type.
+     */
+    @FunctionalInterface
+    private interface ColumnPlan<T> {
+        T read(Row row, String columnName);
     }
 }
@@ -11,5 +11,10 @@ public final class AuthoritiesConstants {
 
     public static final String ANONYMOUS = "ROLE_ANONYMOUS";
 
+    /**
+     * Granted to the tokens minted by the car instances to call each other, never to users.
+     */
+    public static final String INTERNAL = "ROLE_INTERNAL";
+
     private AuthoritiesConstants() {}
 }
@@ -0,0 +1,4 @@
+/**
+ * JWT support.
+ */
+package com.mycompany.myapp.security.jwt;
@@ -0,0 +1,194 @@
+package com.mycompany.myapp.service;
+
+import static com.mycompany.myapp.security.SecurityUtils.AUTHORITIES_CLAIM;
+import static com.mycompany.myapp.security.SecurityUtils.JWT_ALGORITHM;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.repository.CarCache;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service keeping the {@link CarCache} of every car instance consistent.
+ * <p>
+ * The ids evicted locally are batched for up to {@code application.cache.invalidation.max-delay}, duplicates are coalesced,
+ * and each batch is posted to the other car instances registered in the {@link DiscoveryClient}. When all the cars are
+ * evicted, the other instances are asked at once to evict all of theirs. The requests are
+ * authenticated with a short-lived token holding the {@link AuthoritiesConstants#INTERNAL} authority, signed with the
+ * shared JWT secret. A failed request is only logged: the entries of the unreachable instance expire with the cache time to live.
+ */
+@Service
+public class CarCacheInvalidationService implements InitializingBean, DisposableBean {
+
+    public static final String CACHE_PATH = "/api/internal/car-cache";
+
+    public static final String EVICTIONS_PATH = CACHE_PATH + "/evictions";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CarCacheInvalidationService.class);
+
+    private static final long TOKEN_VALIDITY_IN_SECONDS = 60;
+
+    private final CarCache carCache;
+
+    private final DiscoveryClient discoveryClient;
+
+    private final ObjectProvider<Registration> registration;
+
+    private final JwtEncoder jwtEncoder;
+
+    private final WebClient webClient;
+
+    private final ApplicationProperties.Cache properties;
+
+    private final String applicationName;
+
+    private Disposable.Composite subscriptions;
+
+    public CarCacheInvalidationService(
+        CarCache carCache,
+        DiscoveryClient discoveryClient,
+        ObjectProvider<Registration> registration,
+        JwtEncoder jwtEncoder,
+        WebClient.Builder webClientBuilder,
+        ApplicationProperties applicationProperties,
+        @Value("${spring.application.name}") String applicationName
+    ) {
+        this.carCache = carCache;
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.jwtEncoder = jwtEncoder;
+        this.webClient = webClientBuilder.build();
+        this.properties = applicationProperties.getCache();
+        this.applicationName = applicationName;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        ApplicationProperties.Cache.Invalidation invalidation = properties.getInvalidation();
+        if (!properties.isEnabled() || !invalidation.isEnabled()) {
+            return;
+        }
+        subscriptions = Disposables.composite(
+            carCache
+                .localEvictions()
+                .onBackpressureBuffer()
+                .bufferTimeout(invalidation.getMaxBatchSize(), invalidation.getMaxDelay(), true)
+                .map(LinkedHashSet::new)
+                .concatMap(this::publish)
+                .subscribe(),
+            // clearing twice is the same as clearing once
+            carCache.localClears().onBackpressureLatest().concatMap(evicted -> publishClear()).subscribe()
+        );
+    }
+
+    @Override
+    public void destroy() {
+        if (subscriptions != null) {
+            subscriptions.dispose();
+        }
+    }
+
+    /**
+     * Evicts the cars modified by another instance.
+     * @param ids the ids of the cars.
+     */
+    public void evictLocally(Collection<Long> ids) {
+        LOG.debug("Evicting {} cars modified by another instance", ids.size());
+        ids.forEach(carCache::evictLocally);
+    }
+
+    /**
+     * Evicts all the cars, after they have been deleted by another instance.
+     */
+    public void evictAllLocally() {
+        LOG.debug("Evicting all the cars deleted by another instance");
+        carCache.evictAllLocally();
+    }
+
+    private Mono<Void> publish(Collection<Long> ids) {
+        return sendToPeers(
+            peer -> webClient.post().uri(peer.getUri().resolve(EVICTIONS_PATH)).bodyValue(ids),
+            ids.size() + " cars"
+        );
+    }
+
+    private Mono<Void> publishClear() {
+        return sendToPeers(
+            peer -> webClient.delete().uri(peer.getUri().resolve(CACHE_PATH)),
+            "all the cars"
+        );
+    }
+
+    private Mono<Void> sendToPeers(Function<ServiceInstance, WebClient.RequestHeadersSpec<?>> request, String cars) {
+        List<ServiceInstance> peers = getPeers();
+        if (peers.isEmpty()) {
+            return Mono.empty();
+        }
+        String token = createToken();
+        return Flux.fromIterable(peers)
+            .flatMap(peer ->
+                request
+                    .apply(peer)
+                    .headers(headers -> headers.setBearerAuth(token))
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(properties.getInvalidation().getTimeout())
+                    .onErrorResume(e -> {
+                        LOG.warn("Could not evict {} from {}: {}", cars, peer.getInstanceId(), e.getMessage());
+                        return Mono.empty();
+                    })
+            )
+            .then();
+    }
+
+    private List<ServiceInstance> getPeers() {
+        String self = registration.getIfAvailable() != null ? registration.getIfAvailable().getInstanceId() : null;
+        List<ServiceInstance> peers = new ArrayList<>();
+        for (ServiceInstance instance : discoveryClient.getInstances(applicationName)) {
+            if (self == null || !self.equals(instance.getInstanceId())) {
+                peers.add(instance);
+            }
+        }
+        return peers;
+    }
+
+    /**
+     * Creates the token authenticating the requests to the other instances.
+     * @return a token holding the {@link AuthoritiesConstants#INTERNAL} authority.
+     */
+    String createToken() {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuedAt(now)
+            .expiresAt(now.plusSeconds(TOKEN_VALIDITY_IN_SECONDS))
+            .subject(applicationName)
+            .claim(AUTHORITIES_CLAIM, AuthoritiesConstants.INTERNAL)
+            .build();
+        JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue();
+    }
+}
@@ -0,0 +1,54 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.service.CarCacheInvalidationService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller receiving the cache evictions of the other car instances.
+ */
+@RestController
+@RequestMapping("/api/internal/car-cache")
+public class CarCacheResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CarCacheResource.class);
+
+    private final CarCacheInvalidationService carCacheInvalidationService;
+
+    public CarCacheResource(CarCacheInvalidationService carCacheInvalidationService) {
+        this.carCacheInvalidationService = carCacheInvalidationService;
+    }
+
+    /**
+     * {@code POST  /internal/car-cache/evictions} : evict cars modified by another instance.
+     *
+     * @param ids the ids of the cars to evict.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/evictions")
+    public Mono<ResponseEntity<Void>> evictCars(@RequestBody List<Long> ids) {
+        LOG.debug("REST request to evict Cars : {}", ids);
+        carCacheInvalidationService.evictLocally(ids);
+        return Mono.just(ResponseEntity.noContent().build());
+    }
+
+    /**
+     * {@code DELETE  /internal/car-cache} : evict all the cars, deleted by another instance.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @DeleteMapping("")
+    public Mono<ResponseEntity<Void>> evictAllCars() {
+        LOG.debug("REST request to evict all Cars");
+        carCacheInvalidationService.evictAllLocally();
+        return Mono.just(ResponseEntity.noContent().build());
+    }
+}
@@ -0,0 +1,84 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.domain.Car;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Strong entity tags of the cars, derived from a hash of their content.
+ */
+final class CarETags {
+
+    private static final byte SEPARATOR = 0;
+
+    private CarETags() {}
+
+    /**
+     * Returns the entity tag of a car.
+     * @param car the car.
+     * @return the quoted entity tag.
+     */
+    static String of(Car car) {
+        MessageDigest digest = newDigest();
+        update(digest, car);
+        return toETag(digest);
+    }
+
+    /**
+     * Returns the entity tag of a page of cars.
+     * @param cars the cars of the page.
+     * @param extent what the headers of the page tell about the other cars, like the total count or whether there is a next page.
+     * @return the quoted entity tag.
+     */
+    static String of(List<Car> cars, long extent) {
+        MessageDigest digest = newDigest();
+        update(digest, String.valueOf(extent));
+        for (Car car : cars) {
+            update(digest, car);
+        }
+        return toETag(digest);
+    }
+
+    /**
+     * Checks an {@code If-Match} header against the current entity tag.
+     * @param ifMatch the value of the header, a list of entity tags or {@code *}.
+     * @param eTag the current entity tag.
+     * @return whether the precondition holds.
+     */
+    static boolean matches(String ifMatch, String eTag) {
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || eTag.equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void update(MessageDigest digest, Car car) {
+        update(digest, String.valueOf(car.getId()));
+        update(digest, String.valueOf(car.getName()));
+        update(digest, String.valueOf(car.getAge()));
+        update(digest, String.valueOf(car.getIsBroken()));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update(SEPARATOR);
+    }
+
+    private static String toETag(MessageDigest digest) {
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.mycompany.myapp.web.rest;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.domain.Car;
 import com.mycompany.myapp.repository.CarRepository;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.vm.CarBatchChunkVM;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
@@ -12,18 +17,22 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.ForwardedHeaderUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.mycompany.myapp.domain.Car}.
@@ -37,13 +46,37 @@ public class CarResource {
 
     private static final String ENTITY_NAME = "carCar";
 
+    /**
+     * Header holding the opaque cursor of the next page, when using keyset pagination.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CarRepository carRepository;
 
-    public CarResource(CarRepository carRepository) {
+    private final TransactionalOperator transactionalOperator;
+
+    private final int batchChunkSize;
+
+    private final int exportFetchSize;
+
+    private final CacheControl readCacheControl;
+
+    public CarResource(
+        CarRepository carRepository,
+        TransactionalOperator transactionalOperator,
+        ApplicationProperties applicationProperties
+    ) {
         this.carRepository = carRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.batchChunkSize = applicationProperties.getBatch().getChunkSize();
+        this.exportFetchSize = applicationProperties.getExport().getFetchSize();
+        // the gateway serves the reads for a while, while the browsers revalidate them with their ETag
+        this.readCacheControl = CacheControl.maxAge(Duration.ZERO).sMaxAge(applicationProperties.getCache().getSharedMaxAge());
     }
 
     /**
@@ -72,19 +105,92 @@ public class CarResource {
             });
     }
 
+    /**
+     * {@code POST  /cars/batch} : Create new cars in batches.
+     * <p>
+     * The cars are read as a JSON array or as an NDJSON stream, and inserted in chunks of {@code application.batch.chunk-size}
+     * cars, each chunk being a single batched statement in its own transaction. The result of every chunk is streamed back
+     * as soon as it is committed.
+     *
+     * @param cars the cars to create.
+     * @return the {@link Flux} of chunk results, holding the generated ids, or an error if a car has already an ID.
+     */
+    @PostMapping(
+        value = "/batch",
+        consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE },
+        produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE }
+    )
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<CarBatchChunkVM> createCars(@RequestBody Flux<Car> cars) {
+        LOG.debug("REST request to save a batch of Cars");
+        return cars
+            .map(car -> {
+                if (car.getId() != null) {
+                    throw new BadRequestAlertException("A new car cannot already have an ID", ENTITY_NAME, "idexists");
+                }
+                return car;
+            })
+            .buffer(batchChunkSize)
+            .index()
+            .concatMap(chunk ->
+                transactionalOperator
+                    .transactional(carRepository.insertAll(chunk.getT2()).collectList())
+                    .map(ids -> new CarBatchChunkVM(chunk.getT1(), ids, ids.size()))
+            );
+    }
+
+    /**
+     * {@code PUT  /cars/batch} : Updates existing cars in batches.
+     * <p>
+     * The cars are read as a JSON array or as an NDJSON stream, and updated in chunks of {@code application.batch.chunk-size}
+     * cars, each chunk being a single batched statement in its own transaction. The result of every chunk is streamed back
+     * as soon as it is committed.
+     *
+     * @param cars the cars to update.
+     * @return the {@link Flux} of chunk results, holding the ids and the number of updated rows, or an error if a car has no ID.
+     */
+    @PutMapping(
+        value = "/batch",
+        consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE },
+        produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE }
+    )
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<CarBatchChunkVM> updateCars(@RequestBody Flux<Car> cars) {
+        LOG.debug("REST request to update a batch of Cars");
+        return cars
+            .map(car -> {
+                if (car.getId() == null) {
+                    throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+                }
+                return car;
+            })
+            .buffer(batchChunkSize)
+            .index()
+            .concatMap(chunk ->
+                transactionalOperator
+                    .transactional(carRepository.updateAll(chunk.getT2()))
+                    .map(rowsUpdated -> new CarBatchChunkVM(chunk.getT1(), chunk.getT2().stream().map(Car::getId).toList(), rowsUpdated))
+            );
+    }
+
     /**
      * {@code PUT  /cars/:id} : Updates an existing car.
      *
      * @param id the id of the car to save.
      * @param car the car to update.
+     * @param ifMatch the entity tags the current car must match, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated car,
      * or with status {@code 400 (Bad Request)} if the car is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the car does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the car couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public Mono<ResponseEntity<Car>> updateCar(@PathVariable(value = "id", required = false) final Long id, @RequestBody Car car)
-        throws URISyntaxException {
+    public Mono<ResponseEntity<Car>> updateCar(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Car car,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         LOG.debug("REST request to update Car : {}, {}", id, car);
         if (car.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -93,22 +199,17 @@ public class CarResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return carRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return carRepository
-                    .save(car)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(result ->
-                        ResponseEntity.ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                            .body(result)
-                    );
-            });
+        return lockIfMatches(id, ifMatch).flatMap(current ->
+            carRepository
+                .save(car)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .map(result ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .eTag(CarETags.of(result))
+                        .body(result)
+                )
+        );
     }
 
     /**
@@ -116,15 +217,20 @@ public class CarResource {
      *
      * @param id the id of the car to save.
      * @param car the car to update.
+     * @param ifMatch the entity tags the current car must match, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated car,
      * or with status {@code 400 (Bad Request)} if the car is not valid,
      * or with status {@code 404 (Not Found)} if the car is not found,
+     * or with status {@code 412 (Precondition Failed)} if the car does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the car couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public Mono<ResponseEntity<Car>> partialUpdateCar(@PathVariable(value = "id", required = false) final Long id, @RequestBody Car car)
-        throws URISyntaxException {
+    public Mono<ResponseEntity<Car>> partialUpdateCar(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Car car,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         LOG.debug("REST request to partial update Car partially : {}, {}", id, car);
         if (car.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -133,38 +239,31 @@ public class CarResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return carRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        // the locked row is the base of the merge, so no concurrent write is lost
+        Mono<Car> result = lockIfMatches(id, ifMatch)
+            .map(existingCar -> {
+                if (car.getName() != null) {
+                    existingCar.setName(car.getName());
+                }
+                if (car.getAge() != null) {
+                    existingCar.setAge(car.getAge());
+                }
+                if (car.getIsBroken() != null) {
+                    existingCar.setIsBroken(car.getIsBroken());
                 }
 
-                Mono<Car> result = carRepository
-                    .findById(car.getId())
-                    .map(existingCar -> {
-                        if (car.getName() != null) {
-                            existingCar.setName(car.getName());
-                        }
-                        if (car.getAge() != null) {
-                            existingCar.setAge(car.getAge());
-                        }
-                        if (car.getIsBroken() != null) {
-                            existingCar.setIsBroken(car.getIsBroken());
-                        }
-
-                        return existingCar;
-                    })
-                    .flatMap(carRepository::save);
-
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(res ->
-                        ResponseEntity.ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                            .body(res)
-                    );
-            });
+                return existingCar;
+            })
+            .flatMap(carRepository::save);
+
+        return result
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+            .map(res ->
+                ResponseEntity.ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
+                    .eTag(CarETags.of(res))
+                    .body(res)
+            );
     }
 
     /**
@@ -172,7 +271,8 @@ public class CarResource {
      *
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body,
+     * or with status {@code 304 (Not Modified)} if the page matches the {@code If-None-Match} header.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<ResponseEntity<List<Car>>> getAllCars(
@@ -181,7 +281,7 @@ public class CarResource {
     ) {
         LOG.debug("REST request to get a page of Cars");
         return carRepository
-            .count()
+            .countForPaging()
             .zipWith(carRepository.findAllBy(pageable).collectList())
             .map(countWithEntities ->
                 ResponseEntity.ok()
@@ -191,21 +291,124 @@ public class CarResource {
                             new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
                         )
                     )
+                    .eTag(CarETags.of(countWithEntities.getT2(), countWithEntities.getT1()))
                     .body(countWithEntities.getT2())
             );
     }
 
+    /**
+     * {@code GET  /cars} : stream all the cars as NDJSON.
+     * <p>
+     * Rows are read from the database cursor {@code application.export.fetch-size} at a time, and only as fast as the client
+     * consumes them, so a full export runs in constant memory.
+     *
+     * @return the {@link Flux} of all the cars.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    public Flux<Car> streamAllCars() {
+        LOG.debug("REST request to stream all Cars");
+        return carRepository.streamAll(exportFetchSize).limitRate(exportFetchSize);
+    }
+
+    /**
+     * {@code GET  /cars?after=:cursor} : get a page of cars using keyset pagination.
+     * <p>
+     * Cars are returned ordered by id, starting after the given cursor (or from the beginning when the cursor is empty).
+     * The cursor of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header, which is absent on the last page.
+     * No total count is computed, so every page costs the same whatever its depth.
+     *
+     * @param after the opaque cursor returned with the previous page, or an empty value for the first page.
+     * @param size the maximum number of cars in the page.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the size is not valid.
+     */
+    @GetMapping(value = "", params = "after", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<Car>>> getAllCarsAfter(
+        @RequestParam("after") String after,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        ServerHttpRequest request
+    ) {
+        LOG.debug("REST request to get a page of Cars after cursor : {}", after);
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestAlertException("Invalid page size", ENTITY_NAME, "sizeinvalid");
+        }
+        Long afterId = decodeCursor(after);
+        // one extra row tells whether there is a next page, without counting
+        return carRepository
+            .findAllAfter(afterId, size + 1)
+            .collectList()
+            .map(cars -> {
+                HttpHeaders headers = new HttpHeaders();
+                if (cars.size() > size) {
+                    cars = cars.subList(0, size);
+                    String cursor = encodeCursor(cars.get(size - 1).getId());
+                    headers.add(NEXT_CURSOR_HEADER, cursor);
+                    headers.add(
+                        HttpHeaders.LINK,
+                        "<" +
+                        ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders())
+                            .replaceQueryParam("after", cursor)
+                            .replaceQueryParam("size", size)
+                            .toUriString() +
+                        ">; rel=\"next\""
+                    );
+                }
+                long extent = headers.containsKey(NEXT_CURSOR_HEADER) ? cars.size() + 1 : cars.size();
+                return ResponseEntity.ok().headers(headers).cacheControl(readCacheControl).eTag(CarETags.of(cars, extent)).body(cars);
+            });
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
     /**
      * {@code GET  /cars/:id} : get the "id" car.
      *
      * @param id the id of the car to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the car, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the car, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the car matches the {@code If-None-Match} header.
      */
     @GetMapping("/{id}")
+    // the cached cars are served without checking out a connection for an empty transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Mono<ResponseEntity<Car>> getCar(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Car : {}", id);
         Mono<Car> car = carRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(car);
+        // the ETag lets WebFlux answer 304 Not Modified without serializing the car
+        return car
+            .map(result -> ResponseEntity.ok().cacheControl(readCacheControl).eTag(CarETags.of(result)).body(result))
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    /**
+     * Reads the current car from the database and locks it until the update is committed, then checks it against the
+     * {@code If-Match} header: a concurrent update of the car waits for the lock, and then sees the new entity tag.
+     */
+    private Mono<Car> lockIfMatches(Long id, String ifMatch) {
+        return carRepository
+            .findByIdForUpdate(id)
+            .filter(current -> ifMatch == null || CarETags.matches(ifMatch, CarETags.of(current)))
+            .switchIfEmpty(
+                Mono.error(() ->
+                    ifMatch == null
+                        ? new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")
+                        : new ResponseStatusException(HttpStatus.PRECONDITION_FAILED)
+                )
+            );
     }
 
     /**
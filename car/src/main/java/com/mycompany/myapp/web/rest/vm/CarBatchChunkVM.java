@@ -0,0 +1,59 @@
+package com.mycompany.myapp.web.rest.vm;
+
+import java.util.List;
+
+/**
+ * View Model that reports the outcome of one chunk of a batch create or update of cars.
+ */
+public class CarBatchChunkVM {
+
+    private long chunk;
+
+    private List<Long> ids;
+
+    private long rowsUpdated;
+
+    public CarBatchChunkVM() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CarBatchChunkVM(long chunk, List<Long> ids, long rowsUpdated) {
+        this.chunk = chunk;
+        this.ids = ids;
+        this.rowsUpdated = rowsUpdated;
+    }
+
+    public long getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(long chunk) {
+        this.chunk = chunk;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public long getRowsUpdated() {
+        return rowsUpdated;
+    }
+
+    public void setRowsUpdated(long rowsUpdated) {
+        this.rowsUpdated = rowsUpdated;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarBatchChunkVM{" +
+            "chunk=" + chunk +
+            ", ids=" + ids +
+            ", rowsUpdated=" + rowsUpdated +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Rest layer visual models.
+ */
+package com.mycompany.myapp.web.rest.vm;
@@ -0,0 +1,82 @@
+package com.mycompany.myapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Car;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link CarCache}.
+ */
+class CarCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void readsThroughTheCache() {
+        CarCache carCache = new CarCache(new ApplicationProperties(), meterRegistry);
+
+        assertThat(carCache.get(1L, this::load).block().getName()).isEqualTo("car-1");
+        assertThat(carCache.get(1L, this::load).block().getName()).isEqualTo("car-1");
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CarCache.CACHE_NAME).tag("result", "hit").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CarCache.CACHE_NAME).tag("result", "miss").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void returnsCopiesOfTheCachedCars() {
+        CarCache carCache = new CarCache(new ApplicationProperties(), meterRegistry);
+
+        carCache.get(1L, this::load).block().setName("modified");
+
+        assertThat(carCache.get(1L, this::load).block().getName()).isEqualTo("car-1");
+    }
+
+    @Test
+    void reloadsEvictedCars() {
+        CarCache carCache = new CarCache(new ApplicationProperties(), meterRegistry);
+
+        carCache.get(1L, this::load).block();
+        carCache.evict(1L);
+        carCache.get(1L, this::load).block();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheWhenDisabled() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().setEnabled(false);
+        CarCache carCache = new CarCache(applicationProperties, meterRegistry);
+
+        carCache.get(1L, this::load).block();
+        carCache.get(1L, this::load).block();
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(meterRegistry.find("cache.gets").meters()).isEmpty();
+    }
+
+    private Mono<Car> load(Long id) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return new Car().id(id).name("car-" + id);
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.mycompany.myapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link CarCountCache}.
+ */
+class CarCountCacheTest {
+
+    private AtomicInteger counts;
+
+    @BeforeEach
+    void setUp() {
+        counts = new AtomicInteger();
+    }
+
+    @Test
+    void countsOncePerRefreshInterval() {
+        CarCountCache carCountCache = new CarCountCache(new ApplicationProperties());
+
+        assertThat(carCountCache.get(this::count).block()).isEqualTo(10L);
+        assertThat(carCountCache.get(this::count).block()).isEqualTo(10L);
+
+        assertThat(counts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void appliesWritesIncrementally() {
+        CarCountCache carCountCache = new CarCountCache(new ApplicationProperties());
+        carCountCache.get(this::count).block();
+
+        carCountCache.add(3);
+        carCountCache.remove(1);
+
+        assertThat(carCountCache.get(this::count).block()).isEqualTo(12L);
+        assertThat(counts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshesStaleCounts() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPagination().setCountRefreshInterval(Duration.ofNanos(-1));
+        CarCountCache carCountCache = new CarCountCache(applicationProperties);
+        carCountCache.get(this::count).block();
+        carCountCache.add(3);
+
+        // the stale count is returned while it is refreshed
+        assertThat(carCountCache.get(this::count).block()).isEqualTo(13L);
+        assertThat(carCountCache.get(this::count).block()).isEqualTo(10L);
+    }
+
+    @Test
+    void keepsTheStaleCountWhenTheRefreshFails() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPagination().setCountRefreshInterval(Duration.ofNanos(-1));
+        CarCountCache carCountCache = new CarCountCache(applicationProperties);
+        carCountCache.get(this::count).block();
+
+        assertThat(carCountCache.get(() -> Mono.error(new IllegalStateException("Connection refused"))).block()).isEqualTo(10L);
+        // the failed refresh does not prevent the next one
+        carCountCache.get(this::count).block();
+        assertThat(counts.get()).isEqualTo(2);
+    }
+
+    @Test
+    void countsAgainAfterReset() {
+        CarCountCache carCountCache = new CarCountCache(new ApplicationProperties());
+        carCountCache.get(this::count).block();
+
+        carCountCache.reset();
+        carCountCache.get(this::count).block();
+
+        assertThat(counts.get()).isEqualTo(2);
+    }
+
+    private Mono<Long> count() {
+        return Mono.fromSupplier(() -> {
+            counts.incrementAndGet();
+            return 10L;
+        });
+    }
+}
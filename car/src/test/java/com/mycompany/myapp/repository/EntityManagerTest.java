@@ -0,0 +1,58 @@
+package com.mycompany.myapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.MySqlDialect;
+import org.springframework.data.relational.core.dialect.RenderContextFactory;
+import org.springframework.data.relational.core.sql.OrderByField;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.Table;
+import org.springframework.data.relational.core.sql.render.SqlRenderer;
+
+/**
+ * Test class for the SQL templates of the {@link EntityManager}.
+ */
+class EntityManagerTest {
+
+    private static final Table TABLE = Table.aliased("car", EntityManager.ENTITY_ALIAS);
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        SqlRenderer sqlRenderer = SqlRenderer.create(new RenderContextFactory(MySqlDialect.INSTANCE).createRenderContext());
+        entityManager = new EntityManager(sqlRenderer, null, mock(R2dbcEntityTemplate.class, RETURNS_DEEP_STUBS));
+    }
+
+    @Test
+    void rendersAQueryShapeOnce() {
+        String first = entityManager.createSelectWithLimit("car.findFirst", firstCars());
+        String second = entityManager.createSelectWithLimit("car.findFirst", firstCars());
+
+        assertThat(second).isSameAs(first);
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void bindsTheLimitRatherThanRenderingIt() {
+        String sql = entityManager.createSelectWithLimit("car.findFirst", firstCars());
+
+        assertThat(sql).endsWith("ORDER BY e.id ASC LIMIT :limit");
+    }
+
+    private Supplier<Select> firstCars() {
+        return () -> {
+            renders.incrementAndGet();
+            return Select.builder().select(TABLE.column("id")).from(TABLE).orderBy(OrderByField.from(TABLE.column("id")).asc()).build();
+        };
+    }
+}
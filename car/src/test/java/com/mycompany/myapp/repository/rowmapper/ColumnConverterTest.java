@@ -0,0 +1,106 @@
+package com.mycompany.myapp.repository.rowmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.DatabaseConfiguration;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.MySqlDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+/**
+ * Test class for the {@link ColumnConverter}.
+ */
+class ColumnConverterTest {
+
+    private ColumnConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        R2dbcCustomConversions conversions = R2dbcCustomConversions.of(
+            MySqlDialect.INSTANCE,
+            List.of(DatabaseConfiguration.BitSetReadConverter.INSTANCE)
+        );
+        converter = new ColumnConverter(conversions, new MappingR2dbcConverter(new R2dbcMappingContext(), conversions));
+    }
+
+    @Test
+    void readsNativeTypeFromDriver() {
+        Row row = mockRow("e_id", Long.class);
+        when(row.get("e_id", Long.class)).thenReturn(42L);
+
+        assertThat(converter.fromRow(row, "e_id", Long.class)).isEqualTo(42L);
+        assertThat(converter.fromRow(row, "e_id", Long.class)).isEqualTo(42L);
+        verify(row, never()).get("e_id");
+    }
+
+    @Test
+    void convertsOtherTypesWithoutAskingTheDriver() {
+        BitSet bits = new BitSet();
+        bits.set(0);
+        Row row = mockRow("e_is_broken", BitSet.class);
+        when(row.get("e_is_broken")).thenReturn(bits);
+
+        assertThat(converter.fromRow(row, "e_is_broken", Boolean.class)).isTrue();
+        assertThat(converter.fromRow(row, "e_is_broken", Boolean.class)).isTrue();
+        verify(row, never()).get(eq("e_is_broken"), any(Class.class));
+        verify(row, times(2)).get("e_is_broken");
+    }
+
+    @Test
+    void convertsAnotherNativeTypeUnderTheSameColumnName() {
+        Row row = mockRow("e_id", Long.class);
+        when(row.get("e_id", Long.class)).thenReturn(42L);
+        assertThat(converter.fromRow(row, "e_id", Long.class)).isEqualTo(42L);
+
+        Row other = mockRow("e_id", String.class);
+        when(other.get("e_id")).thenReturn("43");
+        assertThat(converter.fromRow(other, "e_id", Long.class)).isEqualTo(43L);
+        // the VARCHAR column gets its own plan, rather than the driver being asked to decode it as a Long
+        verify(other, never()).get(eq("e_id"), any(Class.class));
+    }
+
+    @Test
+    void convertsAValueOfAnotherTypeThanThePlannedOne() {
+        BitSet bits = new BitSet();
+        bits.set(0);
+        Row row = mockRow("e_is_broken", BitSet.class);
+        when(row.get("e_is_broken")).thenReturn(bits);
+        assertThat(converter.fromRow(row, "e_is_broken", Boolean.class)).isTrue();
+
+        Row other = mockRow("e_is_broken", Byte.class);
+        when(other.get("e_is_broken")).thenReturn((byte) 0);
+        assertThat(converter.fromRow(other, "e_is_broken", Boolean.class)).isFalse();
+    }
+
+    @Test
+    void keepsNullValues() {
+        Row row = mockRow("e_name", Integer.class);
+
+        assertThat(converter.fromRow(row, "e_name", String.class)).isNull();
+    }
+
+    private static Row mockRow(String columnName, Class<?> javaType) {
+        ColumnMetadata columnMetadata = mock(ColumnMetadata.class);
+        when(columnMetadata.getJavaType()).thenAnswer(invocation -> javaType);
+        RowMetadata rowMetadata = mock(RowMetadata.class);
+        when(rowMetadata.getColumnMetadata(columnName)).thenReturn(columnMetadata);
+        Row row = mock(Row.class);
+        when(row.getMetadata()).thenReturn(rowMetadata);
+        return row;
+    }
+}
@@ -23,6 +23,7 @@ import tech.jhipster.config.JHipsterProperties;
         SecurityJwtConfiguration.class,
         SecurityMetersService.class,
         JwtAuthenticationTestUtils.class,
+        VerifiedJwtCache.class,
     }
 )
 @WebFluxTest(
@@ -0,0 +1,74 @@
+package com.mycompany.myapp.security.jwt;
+
+import static com.mycompany.myapp.security.jwt.JwtAuthenticationTestUtils.createValidToken;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.config.SecurityJwtConfiguration;
+import com.mycompany.myapp.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Measures the CPU time spent by the {@code jwtDecoder} bean per request, with and without the {@link VerifiedJwtCache}.
+ * <p>
+ * It is not part of the build, run it with {@code ./mvnw test -Dtest=JwtDecoderBenchmark}.
+ */
+class JwtDecoderBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JwtDecoderBenchmark.class);
+
+    private static final String JWT_KEY =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final int WARM_UP_ITERATIONS = 20_000;
+
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    void decodeTheSameToken() {
+        String token = createValidToken(JWT_KEY);
+
+        long verifyingNanos = measure(jwtDecoder(false), token);
+        long cachingNanos = measure(jwtDecoder(true), token);
+
+        LOG.info(
+            "CPU time per request: {} ns verifying every token, {} ns with the verified token cache, {} ns saved",
+            verifyingNanos,
+            cachingNanos,
+            verifyingNanos - cachingNanos
+        );
+        assertThat(cachingNanos).isPositive();
+    }
+
+    private static long measure(ReactiveJwtDecoder jwtDecoder, String token) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            jwtDecoder.decode(token).block();
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            jwtDecoder.decode(token).block();
+        }
+        return (threads.getCurrentThreadCpuTime() - start) / ITERATIONS;
+    }
+
+    private static ReactiveJwtDecoder jwtDecoder(boolean cacheEnabled) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getJwtCache().setEnabled(cacheEnabled);
+        SecurityJwtConfiguration securityJwtConfiguration = new SecurityJwtConfiguration();
+        ReflectionTestUtils.setField(securityJwtConfiguration, "jwtKey", JWT_KEY);
+        return securityJwtConfiguration.jwtDecoder(
+            new SecurityMetersService(meterRegistry),
+            new VerifiedJwtCache(applicationProperties, meterRegistry)
+        );
+    }
+}
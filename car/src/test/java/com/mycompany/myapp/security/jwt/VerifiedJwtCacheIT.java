@@ -0,0 +1,81 @@
+package com.mycompany.myapp.security.jwt;
+
+import static com.mycompany.myapp.security.jwt.JwtAuthenticationTestUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+/**
+ * Integration tests for the {@link VerifiedJwtCache} read by the {@code jwtDecoder} bean of the car service.
+ */
+@AuthenticationIntegrationTest
+class VerifiedJwtCacheIT {
+
+    @Autowired
+    private ReactiveJwtDecoder jwtDecoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jhipster.security.authentication.jwt.base64-secret}")
+    private String jwtKey;
+
+    @Test
+    void verifiesARelayedTokenOnce() {
+        String token = createValidTokenForUser(jwtKey, "relayed");
+        double hits = cacheGets("hit");
+        double misses = cacheGets("miss");
+
+        Jwt first = jwtDecoder.decode(token).block();
+        Jwt second = jwtDecoder.decode(token).block();
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getSubject()).isEqualTo("relayed");
+        assertThat(cacheGets("miss") - misses).isEqualTo(1);
+        assertThat(cacheGets("hit") - hits).isEqualTo(1);
+    }
+
+    @Test
+    void verifiesTheSignatureOfEveryRejectedToken() {
+        String token = createTokenWithDifferentSignature();
+        double invalidSignatures = invalidTokens("invalid-signature");
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> jwtDecoder.decode(token).block()).isInstanceOf(JwtException.class);
+        }
+
+        assertThat(invalidTokens("invalid-signature") - invalidSignatures).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsTheExpiredTokensEveryTime() {
+        String token = createExpiredToken(jwtKey);
+        double expired = invalidTokens("expired");
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> jwtDecoder.decode(token).block()).isInstanceOf(JwtException.class);
+        }
+
+        assertThat(invalidTokens("expired") - expired).isEqualTo(2);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", VerifiedJwtCache.CACHE_NAME).tag("result", result).functionCounter().count();
+    }
+
+    private double invalidTokens(String cause) {
+        return meterRegistry
+            .get(SecurityMetersService.INVALID_TOKENS_METER_NAME)
+            .tag(SecurityMetersService.INVALID_TOKENS_METER_CAUSE_DIMENSION, cause)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,145 @@
+package com.mycompany.myapp.service;
+
+import static com.mycompany.myapp.security.jwt.JwtAuthenticationTestUtils.createValidToken;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.SecurityConfiguration;
+import com.mycompany.myapp.config.SecurityJwtConfiguration;
+import com.mycompany.myapp.config.WebConfigurer;
+import com.mycompany.myapp.domain.Car;
+import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.repository.CarCache;
+import com.mycompany.myapp.security.jwt.JwtAuthenticationTestUtils;
+import com.mycompany.myapp.security.jwt.VerifiedJwtCache;
+import com.mycompany.myapp.web.rest.CarCacheResource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for the {@link CarCacheResource}, called by the {@link CarCacheInvalidationService} of another instance
+ * through the security filter chain of the car service.
+ */
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_TIMEOUT)
+@Import(
+    {
+        JHipsterProperties.class,
+        WebConfigurer.class,
+        SecurityConfiguration.class,
+        SecurityJwtConfiguration.class,
+        SecurityMetersService.class,
+        JwtAuthenticationTestUtils.class,
+        VerifiedJwtCache.class,
+        CarCache.class,
+        CarCacheInvalidationService.class,
+    }
+)
+@WebFluxTest(
+    controllers = { CarCacheResource.class },
+    properties = {
+        "jhipster.security.authentication.jwt.base64-secret=fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8",
+        "jhipster.security.authentication.jwt.token-validity-in-seconds=60000",
+    }
+)
+class CarCacheInvalidationServiceIT {
+
+    @MockBean
+    private DiscoveryClient discoveryClient;
+
+    @MockBean
+    private WebClient.Builder webClientBuilder;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CarCache carCache;
+
+    @Autowired
+    private CarCacheInvalidationService carCacheInvalidationService;
+
+    @Value("${jhipster.security.authentication.jwt.base64-secret}")
+    private String jwtKey;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        carCache.evictAllLocally();
+        carCache.get(1L, this::load).block();
+    }
+
+    @Test
+    void evictsTheCarsWithTheTokenOfAnotherInstance() {
+        webTestClient
+            .post()
+            .uri(CarCacheInvalidationService.EVICTIONS_PATH)
+            .headers(headers -> headers.setBearerAuth(carCacheInvalidationService.createToken()))
+            .bodyValue(List.of(1L))
+            .exchange()
+            .expectStatus()
+            .isNoContent();
+
+        carCache.get(1L, this::load).block();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void evictsAllTheCarsWithTheTokenOfAnotherInstance() {
+        webTestClient
+            .delete()
+            .uri(CarCacheInvalidationService.CACHE_PATH)
+            .headers(headers -> headers.setBearerAuth(carCacheInvalidationService.createToken()))
+            .exchange()
+            .expectStatus()
+            .isNoContent();
+
+        carCache.get(1L, this::load).block();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsTheTokensOfTheUsers() {
+        webTestClient
+            .delete()
+            .uri(CarCacheInvalidationService.CACHE_PATH)
+            .headers(headers -> headers.setBearerAuth(createValidToken(jwtKey)))
+            .exchange()
+            .expectStatus()
+            .isForbidden();
+
+        carCache.get(1L, this::load).block();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsTheAnonymousRequests() {
+        webTestClient
+            .post()
+            .uri(CarCacheInvalidationService.EVICTIONS_PATH)
+            .bodyValue(List.of(1L))
+            .exchange()
+            .expectStatus()
+            .isUnauthorized();
+    }
+
+    private Mono<Car> load(Long id) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return new Car().id(id);
+        });
+    }
+}
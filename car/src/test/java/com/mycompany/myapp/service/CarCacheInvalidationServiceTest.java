@@ -0,0 +1,174 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Car;
+import com.mycompany.myapp.repository.CarCache;
+import com.mycompany.myapp.web.rest.CarCacheResource;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Test class for the {@link CarCacheInvalidationService}, with two car instances running in the same JVM.
+ * The security of the {@link CarCacheResource} is tested in {@link CarCacheInvalidationServiceIT}.
+ */
+class CarCacheInvalidationServiceTest {
+
+    private static final String APPLICATION_NAME = "car";
+
+    private final List<ServiceInstance> instances = new ArrayList<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CarInstance first;
+
+    private CarInstance second;
+
+    @BeforeEach
+    void setUp() {
+        first = new CarInstance("car:first");
+        second = new CarInstance("car:second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    void evictsCarsFromTheOtherInstances() throws Exception {
+        first.carCache.get(1L, this::load).block();
+        second.carCache.get(1L, this::load).block();
+        assertThat(loads.get()).isEqualTo(2);
+
+        first.carCache.evict(1L);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (loads.get() == 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            second.carCache.get(1L, this::load).block();
+        }
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void evictsAllTheCarsFromTheOtherInstances() throws Exception {
+        second.carCache.get(1L, this::load).block();
+        second.carCache.get(2L, this::load).block();
+
+        first.carCache.evictAll();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (loads.get() == 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            second.carCache.get(2L, this::load).block();
+        }
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void doesNotSendEvictionsBack() throws Exception {
+        first.carCache.get(1L, this::load).block();
+
+        second.service.evictLocally(List.of(1L));
+        Thread.sleep(200);
+
+        first.carCache.get(1L, this::load).block();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    private Mono<Car> load(Long id) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return new Car().id(id);
+        });
+    }
+
+    private class CarInstance {
+
+        private final CarCache carCache;
+
+        private final CarCacheInvalidationService service;
+
+        private final DisposableServer server;
+
+        @SuppressWarnings("unchecked")
+        CarInstance(String instanceId) {
+            ApplicationProperties applicationProperties = new ApplicationProperties();
+            applicationProperties.getCache().getInvalidation().setMaxDelay(Duration.ofMillis(10));
+            carCache = new CarCache(applicationProperties, new SimpleMeterRegistry());
+
+            DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+            when(discoveryClient.getInstances(APPLICATION_NAME)).thenReturn(instances);
+            Registration registration = mock(Registration.class);
+            when(registration.getInstanceId()).thenReturn(instanceId);
+            ObjectProvider<Registration> registrationProvider = mock(ObjectProvider.class);
+            when(registrationProvider.getIfAvailable()).thenReturn(registration);
+            NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(new ImmutableSecret<>(new SecretKeySpec(new byte[64], "HmacSHA512")));
+
+            service = new CarCacheInvalidationService(
+                carCache,
+                discoveryClient,
+                registrationProvider,
+                jwtEncoder,
+                WebClient.builder(),
+                applicationProperties,
+                APPLICATION_NAME
+            );
+            service.afterPropertiesSet();
+
+            CarCacheResource resource = new CarCacheResource(service);
+            server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle(
+                    new ReactorHttpHandlerAdapter(
+                        RouterFunctions.toHttpHandler(
+                            RouterFunctions.route(RequestPredicates.POST(CarCacheInvalidationService.EVICTIONS_PATH), request ->
+                                request
+                                    .bodyToFlux(Long.class)
+                                    .collectList()
+                                    .flatMap(resource::evictCars)
+                                    .then(ServerResponse.noContent().build())
+                            ).andRoute(RequestPredicates.DELETE(CarCacheInvalidationService.CACHE_PATH), request ->
+                                resource.evictAllCars().then(ServerResponse.noContent().build())
+                            )
+                        )
+                    )
+                )
+                .bindNow();
+            instances.add(new DefaultServiceInstance(instanceId, APPLICATION_NAME, "localhost", server.port(), false));
+        }
+
+        void stop() {
+            service.destroy();
+            server.disposeNow();
+        }
+    }
+}
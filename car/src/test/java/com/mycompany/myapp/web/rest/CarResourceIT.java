@@ -12,7 +12,10 @@ import com.mycompany.myapp.IntegrationTest;
 import com.mycompany.myapp.domain.Car;
 import com.mycompany.myapp.repository.CarRepository;
 import com.mycompany.myapp.repository.EntityManager;
+import com.mycompany.myapp.web.rest.vm.CarBatchChunkVM;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -20,6 +23,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -149,6 +155,57 @@ class CarResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeCreate);
     }
 
+    @Test
+    void createCarsInBatch() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        // Create the Cars as a JSON array
+        var chunks = webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(List.of(createEntity(), createUpdatedEntity())))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(CarBatchChunkVM.class)
+            .returnResult()
+            .getResponseBody();
+
+        // Validate the Cars in the database
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0).getIds()).hasSize(2);
+        assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeCreate + 2);
+        assertCarUpdatableFieldsEquals(createUpdatedEntity(), carRepository.findById(chunks.get(0).getIds().get(1)).block());
+    }
+
+    @Test
+    void updateCarsInBatch() throws Exception {
+        // Initialize the database
+        insertedCar = carRepository.save(car).block();
+
+        // Update the Car as an NDJSON stream
+        Car updatedCar = createUpdatedEntity().id(insertedCar.getId());
+        var chunks = webTestClient
+            .put()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .bodyValue(om.writeValueAsString(updatedCar) + "\n")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(CarBatchChunkVM.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0).getIds()).containsExactly(insertedCar.getId());
+        assertThat(chunks.get(0).getRowsUpdated()).isEqualTo(1);
+        assertPersistedCarToMatchUpdatableProperties(updatedCar);
+    }
+
     @Test
     void getAllCars() {
         // Initialize the database
@@ -175,6 +232,83 @@ class CarResourceIT {
             .value(hasItem(DEFAULT_IS_BROKEN));
     }
 
+    @Test
+    void streamAllCars() {
+        // Initialize the database
+        insertedCar = carRepository.save(car).block();
+
+        // Stream all the cars
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectBodyList(Car.class)
+            .hasSize(1)
+            .contains(insertedCar);
+    }
+
+    @Test
+    void getAllCarsWithCursor() {
+        // Initialize the database
+        Car firstCar = carRepository.save(createEntity()).block();
+        insertedCar = carRepository.save(car).block();
+
+        // Get the first page, of a single car
+        String nextCursor = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists(CarResource.NEXT_CURSOR_HEADER)
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(1)
+            .jsonPath("$.[0].id")
+            .isEqualTo(firstCar.getId().intValue())
+            .returnResult()
+            .getResponseHeaders()
+            .getFirst(CarResource.NEXT_CURSOR_HEADER);
+
+        // Get the last page
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after={after}&size=1", nextCursor)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(CarResource.NEXT_CURSOR_HEADER)
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(1)
+            .jsonPath("$.[0].id")
+            .isEqualTo(insertedCar.getId().intValue());
+
+        carRepository.delete(firstCar).block();
+    }
+
+    @Test
+    void getAllCarsWithInvalidCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=not-a-cursor")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void getCar() {
         // Initialize the database
@@ -190,6 +324,9 @@ class CarResourceIT {
             .isOk()
             .expectHeader()
             .contentType(MediaType.APPLICATION_JSON)
+            // the one of the resource rather than the no-store of Spring Security, so the gateway caches it
+            .expectHeader()
+            .cacheControl(CacheControl.maxAge(Duration.ZERO).sMaxAge(Duration.ofSeconds(10)))
             .expectBody()
             .jsonPath("$.id")
             .value(is(car.getId().intValue()))
@@ -201,6 +338,88 @@ class CarResourceIT {
             .value(is(DEFAULT_IS_BROKEN));
     }
 
+    @Test
+    void getNotModifiedCar() {
+        // Initialize the database
+        insertedCar = carRepository.save(car).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, car.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists(HttpHeaders.ETAG)
+            .returnResult(Car.class)
+            .getResponseHeaders()
+            .getETag();
+
+        // Get the car again, with the same ETag
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, car.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .ifNoneMatch(eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified()
+            .expectBody()
+            .isEmpty();
+    }
+
+    @Test
+    void putCarWithStaleETag() throws Exception {
+        // Initialize the database
+        insertedCar = carRepository.save(car).block();
+
+        Car updatedCar = createUpdatedEntity().id(car.getId());
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, car.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, "\"stale\"")
+            .bodyValue(om.writeValueAsBytes(updatedCar))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        // Validate the Car in the database is unchanged
+        assertPersistedCarToMatchUpdatableProperties(createEntity());
+    }
+
+    @Test
+    void putCarTwiceWithTheSameETag() throws Exception {
+        // Initialize the database
+        insertedCar = carRepository.save(car).block();
+        String eTag = CarETags.of(car);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, car.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .bodyValue(om.writeValueAsBytes(createUpdatedEntity().id(car.getId())))
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        // the second update was based on the car before the first one
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, car.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .bodyValue(om.writeValueAsBytes(createEntity().id(car.getId())))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        assertPersistedCarToMatchUpdatableProperties(createUpdatedEntity());
+    }
+
     @Test
     void getNonExistingCar() {
         // Get the car
@@ -0,0 +1,108 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Car;
+import com.mycompany.myapp.repository.CarRepository;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the transactions of the {@link CarResource}.
+ */
+class CarResourceTest {
+
+    private final CountingTransactionManager transactionManager = new CountingTransactionManager();
+
+    private CarRepository carRepository;
+
+    private CarResource carResource;
+
+    @BeforeEach
+    void setUp() {
+        carRepository = mock(CarRepository.class);
+        CarResource target = new CarResource(
+            carRepository,
+            TransactionalOperator.create(transactionManager),
+            new ApplicationProperties()
+        );
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        carResource = (CarResource) proxyFactory.getProxy();
+    }
+
+    @Test
+    void servesACachedCarWithoutBeginningATransaction() {
+        when(carRepository.findById(1L)).thenReturn(Mono.just(new Car().id(1L).name("AAAAAAAAAA")));
+
+        carResource.getCar(1L).block();
+
+        assertThat(transactionManager.begins).hasValue(0);
+    }
+
+    @Test
+    void letsTheSharedCachesServeTheCar() {
+        when(carRepository.findById(1L)).thenReturn(Mono.just(new Car().id(1L).name("AAAAAAAAAA")));
+
+        ResponseEntity<Car> response = carResource.getCar(1L).block();
+
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=0, s-maxage=10");
+        assertThat(response.getHeaders().getETag()).isNotNull();
+    }
+
+    @Test
+    void beginsATransactionForTheWrites() {
+        when(carRepository.deleteById(1L)).thenReturn(Mono.empty());
+
+        carResource.deleteCar(1L).block();
+
+        assertThat(transactionManager.begins).hasValue(1);
+    }
+
+    /**
+     * A transaction manager counting the transactions it begins, each of which would check out a connection.
+     */
+    private static final class CountingTransactionManager extends AbstractReactiveTransactionManager {
+
+        private final AtomicInteger begins = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(
+            TransactionSynchronizationManager synchronizationManager,
+            Object transaction,
+            TransactionDefinition definition
+        ) {
+            return Mono.fromRunnable(begins::incrementAndGet);
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
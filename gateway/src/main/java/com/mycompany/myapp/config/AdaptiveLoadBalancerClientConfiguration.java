@@ -0,0 +1,40 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.web.loadbalancer.AdaptiveLoadBalancer;
+import com.mycompany.myapp.web.loadbalancer.InstanceStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration of the load balancer of each service, applied to the child context of the service by
+ * {@link LoadBalancerConfiguration}.
+ * <p>
+ * It is not annotated with {@code @Configuration}, so it is not applied to the application context too, and it is not named
+ * after the {@code LoadBalancerClientConfiguration} of Spring Cloud, which is applied to the same child contexts.
+ */
+public class AdaptiveLoadBalancerClientConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+        Environment environment,
+        LoadBalancerClientFactory loadBalancerClientFactory,
+        InstanceStatistics instanceStatistics,
+        ApplicationProperties applicationProperties
+    ) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        ObjectProvider<ServiceInstanceListSupplier> instances = loadBalancerClientFactory.getLazyProvider(
+            serviceId,
+            ServiceInstanceListSupplier.class
+        );
+        if (!applicationProperties.getLoadBalancer().isEnabled()) {
+            return new RoundRobinLoadBalancer(instances, serviceId);
+        }
+        return new AdaptiveLoadBalancer(serviceId, instances, instanceStatistics);
+    }
+}
@@ -1,6 +1,12 @@
 package com.mycompany.myapp.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
 
 /**
  * Properties specific to Gateway.
@@ -9,10 +15,473 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
+@Validated
 public class ApplicationProperties {
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    private final UserDetailsCache userDetailsCache = new UserDetailsCache();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final Mail mail = new Mail();
+
+    @Valid
+    private final UserImport userImport = new UserImport();
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    private final LoadBalancer loadBalancer = new LoadBalancer();
+
     // jhipster-needle-application-properties-property
 
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    public UserDetailsCache getUserDetailsCache() {
+        return userDetailsCache;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public UserImport getUserImport() {
+        return userImport;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
+    public static class JwtCache {
+
+        /**
+         * Whether the tokens already verified are cached, so a token is verified once per gateway instance until it expires.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of verified tokens kept in the cache.
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * Maximum time a verified token is cached, even if it expires later.
+         */
+        private Duration maximumTimeToLive = Duration.ofMinutes(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getMaximumTimeToLive() {
+            return maximumTimeToLive;
+        }
+
+        public void setMaximumTimeToLive(Duration maximumTimeToLive) {
+            this.maximumTimeToLive = maximumTimeToLive;
+        }
+    }
+
+    public static class UserDetailsCache {
+
+        /**
+         * Whether the users loaded to authenticate a login are cached in memory.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of users kept in the cache.
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * Time after which a cached user is read again from the database, and the longest time a change made on another
+         * gateway instance goes unseen.
+         */
+        private Duration timeToLive = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        /**
+         * Number of threads hashing and checking passwords, {@code 0} for one per available processor.
+         */
+        private int threads = 0;
+
+        /**
+         * Maximum number of password hashes and checks waiting for a thread, the next ones are rejected.
+         */
+        private int queueCapacity = 100;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class Mail {
+
+        /**
+         * Maximum number of emails waiting to be sent, the next ones are dropped.
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * Maximum number of emails sent over one SMTP connection.
+         */
+        private int batchSize = 20;
+
+        /**
+         * Maximum time an email waits for other emails before its batch is sent.
+         */
+        private Duration maxDelay = Duration.ofMillis(100);
+
+        /**
+         * Number of times the emails the SMTP server did not accept are sent again.
+         */
+        private int maxRetries = 3;
+
+        /**
+         * Delay before the first retry, doubled on each retry.
+         */
+        private Duration minBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of parsed email templates kept in memory, {@code 0} parses the templates and resolves the
+         * subjects on each email, e.g. to pick up the edited templates in development.
+         */
+        private int templateCacheSize = 20;
+
+        /**
+         * Time the shutdown waits for the queued emails to be sent, their retries included.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public Duration getMinBackoff() {
+            return minBackoff;
+        }
+
+        public void setMinBackoff(Duration minBackoff) {
+            this.minBackoff = minBackoff;
+        }
+
+        public int getTemplateCacheSize() {
+            return templateCacheSize;
+        }
+
+        public void setTemplateCacheSize(int templateCacheSize) {
+            this.templateCacheSize = templateCacheSize;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+    }
+
+    public static class UserImport {
+
+        /**
+         * Maximum number of users per multi-row INSERT: MySQL binds at most 65,535 parameters per statement, and a user
+         * takes 15 of them.
+         */
+        public static final int MAX_CHUNK_SIZE = 65_535 / 15;
+
+        /**
+         * Number of users written per transaction by the bulk user import, and per multi-row INSERT.
+         */
+        @Min(1)
+        @Max(MAX_CHUNK_SIZE)
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class ResponseCache {
+
+        /**
+         * Whether the responses routed to the services are cached, when their {@code Cache-Control} header allows it.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum total size of the cached response bodies.
+         */
+        private DataSize maximumMemory = DataSize.ofMegabytes(64);
+
+        /**
+         * Maximum size of a cached response body, the larger responses are not cached.
+         */
+        private DataSize maximumEntrySize = DataSize.ofKilobytes(256);
+
+        /**
+         * Maximum time a response is served from the cache without revalidation, even if its {@code max-age} is longer.
+         */
+        private Duration maximumTimeToLive = Duration.ofMinutes(5);
+
+        /**
+         * Time a stale response with an {@code ETag} is kept, to be revalidated with an {@code If-None-Match} request.
+         */
+        private Duration staleTimeToLive = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getMaximumMemory() {
+            return maximumMemory;
+        }
+
+        public void setMaximumMemory(DataSize maximumMemory) {
+            this.maximumMemory = maximumMemory;
+        }
+
+        public DataSize getMaximumEntrySize() {
+            return maximumEntrySize;
+        }
+
+        public void setMaximumEntrySize(DataSize maximumEntrySize) {
+            this.maximumEntrySize = maximumEntrySize;
+        }
+
+        public Duration getMaximumTimeToLive() {
+            return maximumTimeToLive;
+        }
+
+        public void setMaximumTimeToLive(Duration maximumTimeToLive) {
+            this.maximumTimeToLive = maximumTimeToLive;
+        }
+
+        public Duration getStaleTimeToLive() {
+            return staleTimeToLive;
+        }
+
+        public void setStaleTimeToLive(Duration staleTimeToLive) {
+            this.staleTimeToLive = staleTimeToLive;
+        }
+    }
+
+    public static class SingleFlight {
+
+        /**
+         * Whether the identical requests routed at the same time share the response of the first one.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum size of a shared response body, the waiting requests are routed on their own after a larger response.
+         */
+        private DataSize maximumResponseSize = DataSize.ofMegabytes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getMaximumResponseSize() {
+            return maximumResponseSize;
+        }
+
+        public void setMaximumResponseSize(DataSize maximumResponseSize) {
+            this.maximumResponseSize = maximumResponseSize;
+        }
+    }
+
+    public static class LoadBalancer {
+
+        /**
+         * Whether the requests are routed to the service instance with the lowest latency and fewest requests in flight, of
+         * two picked at random, rather than in turn.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Time over which the latency of an instance forgets its past response times.
+         */
+        private Duration decayTime = Duration.ofSeconds(10);
+
+        /**
+         * Rate of failed requests, between 0 and 1, over which an instance is ejected.
+         */
+        private double errorRateThreshold = 0.5;
+
+        /**
+         * Minimum number of requests routed to an instance before it can be ejected.
+         */
+        private int minimumRequests = 10;
+
+        /**
+         * Time during which an ejected instance gets no requests, unless all the instances are ejected.
+         */
+        private Duration ejectionTime = Duration.ofSeconds(30);
+
+        /**
+         * Latency a failed request counts for at least, so an instance which fails fast is not sent more requests.
+         */
+        private Duration failurePenalty = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getDecayTime() {
+            return decayTime;
+        }
+
+        public void setDecayTime(Duration decayTime) {
+            this.decayTime = decayTime;
+        }
+
+        public double getErrorRateThreshold() {
+            return errorRateThreshold;
+        }
+
+        public void setErrorRateThreshold(double errorRateThreshold) {
+            this.errorRateThreshold = errorRateThreshold;
+        }
+
+        public int getMinimumRequests() {
+            return minimumRequests;
+        }
+
+        public void setMinimumRequests(int minimumRequests) {
+            this.minimumRequests = minimumRequests;
+        }
+
+        public Duration getEjectionTime() {
+            return ejectionTime;
+        }
+
+        public void setEjectionTime(Duration ejectionTime) {
+            this.ejectionTime = ejectionTime;
+        }
+
+        public Duration getFailurePenalty() {
+            return failurePenalty;
+        }
+
+        public void setFailurePenalty(Duration failurePenalty) {
+            this.failurePenalty = failurePenalty;
+        }
+    }
+
     // jhipster-needle-application-properties-property-class
 }
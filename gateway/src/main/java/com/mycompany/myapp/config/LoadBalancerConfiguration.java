@@ -0,0 +1,8 @@
+package com.mycompany.myapp.config;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@LoadBalancerClients(defaultConfiguration = AdaptiveLoadBalancerClientConfiguration.class)
+public class LoadBalancerConfiguration {}
@@ -1,10 +1,13 @@
 package com.mycompany.myapp.config;
 
 import static org.springframework.security.config.Customizer.withDefaults;
-import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
 
 import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.security.PasswordHashingScheduler;
+import com.mycompany.myapp.security.TimedPasswordEncoder;
+import com.mycompany.myapp.web.filter.PathPrefixMatcher;
 import com.mycompany.myapp.web.filter.SpaWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
@@ -19,7 +22,6 @@ import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.header.ReferrerPolicyServerHttpHeadersWriter;
 import org.springframework.security.web.server.header.XFrameOptionsServerHttpHeadersWriter.Mode;
 import org.springframework.security.web.server.util.matcher.NegatedServerWebExchangeMatcher;
-import org.springframework.security.web.server.util.matcher.OrServerWebExchangeMatcher;
 import tech.jhipster.config.JHipsterProperties;
 
 @Configuration
@@ -33,16 +35,22 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
-    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserDetailsService userDetailsService) {
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(
+        ReactiveUserDetailsService userDetailsService,
+        PasswordEncoder passwordEncoder,
+        PasswordHashingScheduler passwordHashingScheduler
+    ) {
         UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(
             userDetailsService
         );
-        authenticationManager.setPasswordEncoder(passwordEncoder());
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        // the password is checked on the dedicated scheduler instead of the shared bounded elastic one
+        authenticationManager.setScheduler(passwordHashingScheduler.getScheduler());
         return authenticationManager;
     }
 
@@ -50,9 +58,7 @@ public class SecurityConfiguration {
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
         http
             .securityMatcher(
-                new NegatedServerWebExchangeMatcher(
-                    new OrServerWebExchangeMatcher(pathMatchers("/app/**", "/i18n/**", "/content/**", "/swagger-ui/**"))
-                )
+                new NegatedServerWebExchangeMatcher(PathPrefixMatcher.of("/app/**", "/i18n/**", "/content/**", "/swagger-ui/**"))
             )
             .cors(withDefaults())
             .csrf(csrf -> csrf.disable())
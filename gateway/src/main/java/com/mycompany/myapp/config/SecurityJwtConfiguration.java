@@ -3,8 +3,16 @@ package com.mycompany.myapp.config;
 import static com.mycompany.myapp.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.security.jwt.VerifiedJwtCache;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
 import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jwt.proc.BadJWTException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
@@ -12,7 +20,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
@@ -22,41 +38,49 @@ public class SecurityJwtConfiguration {
 
     private static final Logger LOG = LoggerFactory.getLogger(SecurityJwtConfiguration.class);
 
+    /**
+     * Same clock skew as the default {@link org.springframework.security.oauth2.jwt.JwtTimestampValidator}.
+     */
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    /**
+     * Reported for the expired tokens, and recognized by identity to track them without reading the error messages.
+     */
+    private static final OAuth2Error TOKEN_EXPIRED = new OAuth2Error(
+        OAuth2ErrorCodes.INVALID_TOKEN,
+        "Jwt expired",
+        "https://tools.ietf.org/html/rfc6750#section-3.1"
+    );
+
+    /**
+     * Unknown decoding errors are logged at most once per interval, so a flood of bad tokens does not flood the logs.
+     */
+    private static final long UNKNOWN_ERROR_LOG_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicLong nextUnknownErrorLog = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong unloggedUnknownErrors = new AtomicLong();
+
     @Value("${jhipster.security.authentication.jwt.base64-secret}")
     private String jwtKey;
 
     @Bean
-    public ReactiveJwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public ReactiveJwtDecoder jwtDecoder(SecurityMetersService metersService, VerifiedJwtCache verifiedJwtCache) {
         NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        OAuth2TokenValidator<Jwt> defaultValidator = JwtValidators.createDefault();
+        jwtDecoder.setJwtValidator(jwt ->
+            isExpired(jwt) ? OAuth2TokenValidatorResult.failure(TOKEN_EXPIRED) : defaultValidator.validate(jwt)
+        );
+        ReactiveJwtDecoder verifyingDecoder = token -> {
             try {
-                return jwtDecoder
-                    .decode(token)
-                    .doOnError(e -> {
-                        if (e.getMessage().contains("Jwt expired at")) {
-                            metersService.trackTokenExpired();
-                        } else if (e.getMessage().contains("Failed to validate the token")) {
-                            metersService.trackTokenInvalidSignature();
-                        } else if (
-                            e.getMessage().contains("Invalid JWT serialization:") ||
-                            e.getMessage().contains("Invalid unsecured/JWS/JWE header:")
-                        ) {
-                            metersService.trackTokenMalformed();
-                        } else {
-                            LOG.error("Unknown JWT reactive error {}", e.getMessage());
-                        }
-                    });
+                return jwtDecoder.decode(token).doOnError(e -> trackDecodingError(metersService, e));
             } catch (Exception e) {
-                if (e.getMessage().contains("An error occurred while attempting to decode the Jwt")) {
-                    metersService.trackTokenMalformed();
-                } else if (e.getMessage().contains("Failed to validate the token")) {
-                    metersService.trackTokenInvalidSignature();
-                } else {
-                    LOG.error("Unknown JWT error {}", e.getMessage());
-                }
+                trackDecodingError(metersService, e);
                 throw e;
             }
         };
+        // the security filter chain and the JWTRelay filter both decode the token of a request, it is verified only once
+        return token -> verifiedJwtCache.decode(token, verifyingDecoder);
     }
 
     @Bean
@@ -68,4 +92,50 @@ public class SecurityJwtConfiguration {
         byte[] keyBytes = Base64.from(jwtKey).decode();
         return new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
     }
+
+    private static boolean isExpired(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && Instant.now().minus(CLOCK_SKEW).isAfter(expiresAt);
+    }
+
+    /**
+     * Classifies a decoding error by the types of the exceptions thrown by {@link NimbusReactiveJwtDecoder}.
+     */
+    private void trackDecodingError(SecurityMetersService metersService, Throwable e) {
+        Throwable cause = e.getCause();
+        if (e instanceof JwtValidationException validationException) {
+            if (validationException.getErrors().stream().anyMatch(error -> error == TOKEN_EXPIRED)) {
+                metersService.trackTokenExpired();
+            } else {
+                logUnknownError(e);
+            }
+        } else if (cause instanceof BadJWSException) {
+            metersService.trackTokenInvalidSignature();
+        } else if (cause instanceof BadJWTException) {
+            // the claims set is not valid JSON
+            metersService.trackTokenMalformed();
+        } else if (cause instanceof BadJOSEException) {
+            // another algorithm, an encrypted token, or an unexpected type
+            metersService.trackTokenUnsupported();
+        } else if (e instanceof BadJwtException) {
+            if (cause == null) {
+                // an unsecured token
+                metersService.trackTokenUnsupported();
+            } else {
+                metersService.trackTokenMalformed();
+            }
+        } else {
+            logUnknownError(e);
+        }
+    }
+
+    private void logUnknownError(Throwable e) {
+        long now = System.nanoTime();
+        long nextLog = nextUnknownErrorLog.get();
+        if (now - nextLog >= 0 && nextUnknownErrorLog.compareAndSet(nextLog, now + UNKNOWN_ERROR_LOG_INTERVAL)) {
+            LOG.error("Unknown JWT error {} ({} more since the last log)", e.getMessage(), unloggedUnknownErrors.getAndSet(0));
+        } else {
+            unloggedUnknownErrors.incrementAndGet();
+        }
+    }
 }
@@ -5,17 +5,26 @@ import static org.springframework.data.relational.core.query.Query.query;
 
 import com.mycompany.myapp.domain.Authority;
 import com.mycompany.myapp.domain.User;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.apache.commons.beanutils.BeanComparator;
 import org.springframework.data.domain.*;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -38,6 +47,10 @@ public interface UserRepository extends R2dbcRepository<User, Long>, UserReposit
 
     Mono<User> findOneByLogin(String login);
 
+    Flux<User> findAllByLoginIn(Collection<String> logins);
+
+    Flux<User> findAllByEmailIn(Collection<String> emails);
+
     Flux<User> findAllByIdNotNull(Pageable pageable);
 
     Flux<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
@@ -64,10 +77,50 @@ interface UserRepositoryInternal extends DeleteExtended<User> {
     Mono<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Flux<User> findAllWithAuthorities(Pageable pageable);
+
+    Flux<User> insertAllWithAuthorities(List<User> users);
 }
 
 class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
+    /**
+     * Properties of the {@link User} the admin user list may be sorted by, pushed down to SQL.
+     */
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+        "id",
+        "login",
+        "firstName",
+        "lastName",
+        "email",
+        "activated",
+        "langKey",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate"
+    );
+
+    /**
+     * Columns written by {@link #insertAllWithAuthorities(List)}, with their type and value.
+     */
+    private static final List<InsertColumn> INSERT_COLUMNS = List.of(
+        new InsertColumn("login", String.class, User::getLogin),
+        new InsertColumn("password_hash", String.class, User::getPassword),
+        new InsertColumn("first_name", String.class, User::getFirstName),
+        new InsertColumn("last_name", String.class, User::getLastName),
+        new InsertColumn("email", String.class, User::getEmail),
+        new InsertColumn("image_url", String.class, User::getImageUrl),
+        new InsertColumn("activated", Boolean.class, User::isActivated),
+        new InsertColumn("lang_key", String.class, User::getLangKey),
+        new InsertColumn("activation_key", String.class, User::getActivationKey),
+        new InsertColumn("reset_key", String.class, User::getResetKey),
+        new InsertColumn("reset_date", LocalDateTime.class, user -> toLocalDateTime(user.getResetDate())),
+        new InsertColumn("created_by", String.class, User::getCreatedBy),
+        new InsertColumn("created_date", LocalDateTime.class, user -> toLocalDateTime(user.getCreatedDate())),
+        new InsertColumn("last_modified_by", String.class, User::getLastModifiedBy),
+        new InsertColumn("last_modified_date", LocalDateTime.class, user -> toLocalDateTime(user.getLastModifiedDate()))
+    );
+
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final R2dbcConverter r2dbcConverter;
@@ -90,28 +143,114 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
     @Override
     public Flux<User> findAllWithAuthorities(Pageable pageable) {
-        String property = pageable.getSort().stream().map(Sort.Order::getProperty).findFirst().orElse("id");
-        String direction = String.valueOf(
-            pageable.getSort().stream().map(Sort.Order::getDirection).findFirst().orElse(Sort.DEFAULT_DIRECTION)
-        );
-        long page = pageable.getPageNumber();
-        long size = pageable.getPageSize();
+        // page the users in SQL, then read the authorities of this page only
+        return r2dbcEntityTemplate
+            .select(User.class)
+            .matching(
+                query(Criteria.empty()).sort(toSortableSort(pageable.getSort())).offset(pageable.getOffset()).limit(pageable.getPageSize())
+            )
+            .all()
+            .collectList()
+            .flatMapMany(users -> {
+                if (users.isEmpty()) {
+                    return Flux.empty();
+                }
+                Map<Long, User> usersById = new LinkedHashMap<>();
+                users.forEach(user -> {
+                    user.setAuthorities(new HashSet<>());
+                    usersById.put(user.getId(), user);
+                });
+                return db
+                    .sql("SELECT user_id, authority_name FROM jhi_user_authority WHERE user_id IN (:userIds)")
+                    .bind("userIds", usersById.keySet())
+                    .map((row, metadata) -> Tuples.of(row.get("user_id", Long.class), row.get("authority_name", String.class)))
+                    .all()
+                    .doOnNext(userAuthority -> {
+                        Authority authority = new Authority();
+                        authority.setName(userAuthority.getT2());
+                        usersById.get(userAuthority.getT1()).getAuthorities().add(authority);
+                    })
+                    .thenMany(Flux.fromIterable(usersById.values()));
+            });
+    }
+
+    /**
+     * Keeps the orders on the {@link #SORTABLE_PROPERTIES}, and adds the id as the last order so the pages are stable.
+     */
+    private static Sort toSortableSort(Sort sort) {
+        List<Sort.Order> orders = sort.stream().filter(order -> SORTABLE_PROPERTIES.contains(order.getProperty())).toList();
+        Sort sortable = Sort.by(orders);
+        return sortable.getOrderFor("id") == null ? sortable.and(Sort.by("id")) : sortable;
+    }
+
+    @Override
+    public Flux<User> insertAllWithAuthorities(List<User> users) {
+        if (users.isEmpty()) {
+            return Flux.empty();
+        }
+        // one multi-row INSERT for the users and one for their authorities, instead of one INSERT per row
+        return insertUsers(users)
+            .then(readIds(users))
+            .then(insertUserAuthorities(users))
+            .thenMany(Flux.fromIterable(users));
+    }
+
+    private Mono<Void> insertUsers(List<User> users) {
+        StringJoiner columns = new StringJoiner(", ", "(", ")");
+        INSERT_COLUMNS.forEach(column -> columns.add(column.name()));
+        StringJoiner rows = new StringJoiner(", ");
+        for (int i = 0; i < users.size(); i++) {
+            StringJoiner row = new StringJoiner(", ", "(", ")");
+            for (InsertColumn column : INSERT_COLUMNS) {
+                row.add(":" + column.name() + i);
+            }
+            rows.add(row.toString());
+        }
+        DatabaseClient.GenericExecuteSpec insert = db.sql("INSERT INTO jhi_user " + columns + " VALUES " + rows);
+        for (int i = 0; i < users.size(); i++) {
+            for (InsertColumn column : INSERT_COLUMNS) {
+                Object value = column.value().apply(users.get(i));
+                insert = value == null ? insert.bindNull(column.name() + i, column.type()) : insert.bind(column.name() + i, value);
+            }
+        }
+        return insert.then();
+    }
 
+    /**
+     * Reads the generated ids by login, as not all the drivers return the generated keys of a multi-row INSERT.
+     */
+    private Mono<Void> readIds(List<User> users) {
+        Map<String, User> usersByLogin = users.stream().collect(Collectors.toMap(User::getLogin, Function.identity()));
         return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
-            .map((row, metadata) ->
-                Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
-            )
+            .sql("SELECT id, login FROM jhi_user WHERE login IN (:logins)")
+            .bind("logins", usersByLogin.keySet())
+            .map((row, metadata) -> Tuples.of(row.get("login", String.class), row.get("id", Long.class)))
             .all()
-            .groupBy(t -> t.getT1().getLogin())
-            .flatMap(l -> l.collectList().map(t -> updateUserWithAuthorities(t.get(0).getT1(), t)))
-            .sort(
-                Sort.Direction.fromString(direction) == Sort.DEFAULT_DIRECTION
-                    ? new BeanComparator<>(property)
-                    : new BeanComparator<>(property).reversed()
-            )
-            .skip(page * size)
-            .take(size);
+            .doOnNext(idByLogin -> usersByLogin.get(idByLogin.getT1()).setId(idByLogin.getT2()))
+            .then();
+    }
+
+    private Mono<Void> insertUserAuthorities(List<User> users) {
+        List<Tuple2<Long, String>> userAuthorities = users
+            .stream()
+            .flatMap(user -> user.getAuthorities().stream().map(authority -> Tuples.of(user.getId(), authority.getName())))
+            .toList();
+        if (userAuthorities.isEmpty()) {
+            return Mono.empty();
+        }
+        StringJoiner rows = new StringJoiner(", ");
+        for (int i = 0; i < userAuthorities.size(); i++) {
+            rows.add("(:userId" + i + ", :authority" + i + ")");
+        }
+        DatabaseClient.GenericExecuteSpec insert = db.sql("INSERT INTO jhi_user_authority (user_id, authority_name) VALUES " + rows);
+        for (int i = 0; i < userAuthorities.size(); i++) {
+            insert = insert.bind("userId" + i, userAuthorities.get(i).getT1()).bind("authority" + i, userAuthorities.get(i).getT2());
+        }
+        return insert.then();
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
     }
 
     @Override
@@ -151,4 +290,6 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
         return user;
     }
+
+    private record InsertColumn(String name, Class<?> type, Function<User, Object> value) {}
 }
@@ -24,10 +24,15 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
 
     private static final Logger LOG = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
+
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserDetailsCache userDetailsCache;
+
+    public DomainUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -35,21 +40,31 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
     public Mono<UserDetails> findByUsername(final String login) {
         LOG.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
-            return userRepository
-                .findOneWithAuthoritiesByEmailIgnoreCase(login)
-                .switchIfEmpty(Mono.error(new UsernameNotFoundException("User with email " + login + " was not found in the database")))
-                .map(user -> createSpringSecurityUser(login, user));
+        if (EMAIL_VALIDATOR.isValid(login, null)) {
+            return userDetailsCache
+                .get(login.toLowerCase(Locale.ENGLISH), () ->
+                    userRepository
+                        .findOneWithAuthoritiesByEmailIgnoreCase(login)
+                        .switchIfEmpty(
+                            Mono.error(new UsernameNotFoundException("User with email " + login + " was not found in the database"))
+                        )
+                        .map(user -> createSpringSecurityUser(login, user))
+                )
+                .cast(UserDetails.class);
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return userRepository
-            .findOneWithAuthoritiesByLogin(lowercaseLogin)
-            .switchIfEmpty(Mono.error(new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database")))
-            .map(user -> createSpringSecurityUser(lowercaseLogin, user));
+        return userDetailsCache
+            .get(lowercaseLogin, () ->
+                userRepository
+                    .findOneWithAuthoritiesByLogin(lowercaseLogin)
+                    .switchIfEmpty(Mono.error(new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database")))
+                    .map(user -> createSpringSecurityUser(lowercaseLogin, user))
+            )
+            .cast(UserDetails.class);
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
+    private UserWithId createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
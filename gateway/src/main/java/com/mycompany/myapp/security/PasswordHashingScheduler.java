@@ -0,0 +1,72 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Dedicated {@link Scheduler} of the password hashes and checks, so a surge of logins cannot starve the event loops or
+ * the shared bounded elastic scheduler.
+ * <p>
+ * It runs {@code application.password-hashing.threads} threads, one per processor by default, behind a queue of
+ * {@code application.password-hashing.queue-capacity} tasks. When the queue is full the task is rejected at once with a
+ * {@link RejectedExecutionException}, answered with {@code 503 (Service Unavailable)}. The queue depth and the pool
+ * usage are published under the {@value #NAME} executor name, and the rejections with the
+ * {@value #REJECTED_METER_NAME} counter.
+ */
+@Component
+public class PasswordHashingScheduler implements DisposableBean {
+
+    public static final String NAME = "password-hashing";
+
+    public static final String REJECTED_METER_NAME = "security.password.hashing.rejected";
+
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordHashingScheduler.class);
+
+    private final Scheduler scheduler;
+
+    public PasswordHashingScheduler(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.PasswordHashing properties = applicationProperties.getPasswordHashing();
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        LOG.debug("Hashing passwords with {} threads and up to {} queued tasks", threads, properties.getQueueCapacity());
+        Counter rejected = Counter.builder(REJECTED_METER_NAME)
+            .description("Password hashes and checks rejected because the password hashing queue was full")
+            .register(meterRegistry);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory(NAME + "-"),
+            (task, pool) -> {
+                rejected.increment();
+                throw new RejectedExecutionException("The password hashing queue is full");
+            }
+        );
+        new ExecutorServiceMetrics(executor, NAME, Tags.empty()).bindTo(meterRegistry);
+        this.scheduler = Schedulers.fromExecutorService(executor, NAME);
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,45 @@
+package com.mycompany.myapp.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} recording the latency of the password hashes and checks of its delegate, under the
+ * {@value #METER_NAME} timer.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    public static final String METER_NAME = "security.password.hashing";
+
+    private final PasswordEncoder delegate;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer("encode").register(meterRegistry);
+        this.matchesTimer = timer("matches").register(meterRegistry);
+    }
+
+    private static Timer.Builder timer(String operation) {
+        return Timer.builder(METER_NAME).description("Latency of the password hashes and checks").tag("operation", operation);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
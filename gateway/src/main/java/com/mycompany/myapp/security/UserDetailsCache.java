@@ -0,0 +1,94 @@
+package com.mycompany.myapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.security.DomainUserDetailsService.UserWithId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process read-through cache of the activated users loaded by the {@link DomainUserDetailsService}, by lowercase
+ * login or email.
+ * <p>
+ * The cache is bounded by size, and entries expire after {@code application.user-details-cache.time-to-live}: users
+ * modified on another gateway instance are seen at most that late. Hit and miss counts are published to Micrometer
+ * under the {@value #CACHE_NAME} cache name. It is disabled with {@code application.user-details-cache.enabled: false}.
+ */
+@Component
+public class UserDetailsCache {
+
+    public static final String CACHE_NAME = "userDetails";
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserDetailsCache.class);
+
+    private final Cache<String, UserWithId> cache;
+
+    /**
+     * Incremented on every eviction, so a load which started before an eviction does not cache a stale user.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserDetailsCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.UserDetailsCache properties = applicationProperties.getUserDetailsCache();
+        if (properties.isEnabled()) {
+            LOG.debug("Caching up to {} users for {}", properties.getMaximumSize(), properties.getTimeToLive());
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns the cached user, or loads it and caches it.
+     * @param key the lowercase login or email of the user.
+     * @param loader reads the user from the database, on a cache miss.
+     * @return the user, or the error of the loader.
+     */
+    public Mono<UserWithId> get(String key, Supplier<Mono<UserWithId>> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        return Mono.defer(() -> {
+            UserWithId cached = cache.getIfPresent(key);
+            if (cached != null) {
+                // the authentication managers are free to erase the credentials of the returned user
+                return Mono.just(copy(cached));
+            }
+            long evictionsBeforeLoad = evictions.get();
+            return loader
+                .get()
+                .doOnNext(user -> {
+                    if (evictions.get() == evictionsBeforeLoad) {
+                        cache.put(key, copy(user));
+                    }
+                });
+        });
+    }
+
+    /**
+     * Evicts a user, after it has been modified or deleted, under its current and previous logins and emails.
+     * @param id the id of the user.
+     */
+    public void evict(Long id) {
+        if (cache != null && id != null) {
+            evictions.incrementAndGet();
+            cache.asMap().values().removeIf(user -> id.equals(user.getId()));
+        }
+    }
+
+    private static UserWithId copy(UserWithId user) {
+        return new UserWithId(user.getUsername(), user.getPassword(), user.getAuthorities(), user.getId());
+    }
+}
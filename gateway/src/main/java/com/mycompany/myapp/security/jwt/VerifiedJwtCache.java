@@ -0,0 +1,135 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process cache of the tokens already verified by this gateway instance, by SHA-256 digest of the token.
+ * <p>
+ * A request is decoded twice, by the security filter chain and by the {@link JWTRelayGatewayFilterFactory}; both go through
+ * the {@code jwtDecoder} bean, which reads this cache first so the signature is verified only once per token. An entry
+ * expires at the {@code exp} claim of its token, or after {@code application.jwt-cache.maximum-time-to-live} if that is
+ * sooner. Only successfully verified tokens are cached. Hit and miss counts are published to Micrometer under the
+ * {@value #CACHE_NAME} cache name. It is disabled with {@code application.jwt-cache.enabled: false}.
+ */
+@Component
+public class VerifiedJwtCache {
+
+    public static final String CACHE_NAME = "jwt";
+
+    private static final Logger LOG = LoggerFactory.getLogger(VerifiedJwtCache.class);
+
+    private final Cache<String, Jwt> cache;
+
+    private final Clock clock;
+
+    @Autowired
+    public VerifiedJwtCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(applicationProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    VerifiedJwtCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        ApplicationProperties.JwtCache properties = applicationProperties.getJwtCache();
+        if (properties.isEnabled()) {
+            LOG.debug("Caching up to {} verified tokens for at most {}", properties.getMaximumSize(), properties.getMaximumTimeToLive());
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new UntilExpiresAt(properties.getMaximumTimeToLive()))
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns the cached verified token, or verifies it and caches it.
+     * @param token the encoded token.
+     * @param decoder verifies and decodes the token, on a cache miss.
+     * @return the decoded token.
+     */
+    public Mono<Jwt> decode(String token, ReactiveJwtDecoder decoder) {
+        if (cache == null) {
+            return decoder.decode(token);
+        }
+        String key = digest(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null && !isExpired(cached)) {
+            return Mono.just(cached);
+        }
+        return decoder
+            .decode(token)
+            .doOnNext(jwt -> {
+                if (!isExpired(jwt)) {
+                    cache.put(key, jwt);
+                }
+            });
+    }
+
+    private boolean isExpired(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && !expiresAt.isAfter(clock.instant());
+    }
+
+    private static String digest(String token) {
+        try {
+            // the raw token is a bearer credential, so only its digest is kept in memory
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private final class UntilExpiresAt implements Expiry<String, Jwt> {
+
+        private final Duration maximumTimeToLive;
+
+        private UntilExpiresAt(Duration maximumTimeToLive) {
+            this.maximumTimeToLive = maximumTimeToLive;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+            if (expiresAt == null) {
+                return maximumTimeToLive.toNanos();
+            }
+            Duration untilExpiresAt = Duration.between(clock.instant(), expiresAt);
+            if (untilExpiresAt.isNegative()) {
+                return 0;
+            }
+            return (untilExpiresAt.compareTo(maximumTimeToLive) < 0 ? untilExpiresAt : maximumTimeToLive).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.repository.AuthorityRepository;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Registry of the names of the {@link Authority authorities}, so resolving the authorities of a user does not query the
+ * database.
+ * <p>
+ * The names are read once, when the application is ready or on the first use, into an immutable set. The set is copied
+ * and replaced on each change made through {@link #put(String)} and {@link #remove(String)}, so the readers never lock.
+ * The changes made to the {@code jhi_authority} table by other means, or by other instances, are only seen after a
+ * restart.
+ */
+@Service
+public class AuthorityRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuthorityRegistry.class);
+
+    private final AuthorityRepository authorityRepository;
+
+    private final AtomicReference<SortedSet<String>> names = new AtomicReference<>();
+
+    /**
+     * Incremented on each change, so a load which raced with a change is not kept.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    public AuthorityRegistry(AuthorityRepository authorityRepository) {
+        this.authorityRepository = authorityRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        getNames().subscribe(
+            loaded -> LOG.debug("Loaded {} authorities", loaded.size()),
+            e -> LOG.warn("Could not load the authorities, they will be loaded on their first use: {}", e.getMessage())
+        );
+    }
+
+    /**
+     * Gets the names of all the authorities, in alphabetical order.
+     *
+     * @return the names of all the authorities.
+     */
+    public Flux<String> getAuthorityNames() {
+        return getNames().flatMapIterable(loaded -> loaded);
+    }
+
+    /**
+     * Resolves the authorities with the given names, ignoring the unknown names.
+     *
+     * @param authorityNames the names of the authorities, may be {@code null}.
+     * @return the existing authorities.
+     */
+    public Mono<Set<Authority>> resolve(Collection<String> authorityNames) {
+        if (authorityNames == null || authorityNames.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        return getNames()
+            .map(loaded ->
+                authorityNames.stream().filter(loaded::contains).map(name -> new Authority().name(name)).collect(Collectors.toSet())
+            );
+    }
+
+    public void put(String authorityName) {
+        version.incrementAndGet();
+        names.updateAndGet(current -> {
+            if (current == null || current.contains(authorityName)) {
+                return current;
+            }
+            SortedSet<String> updated = new TreeSet<>(current);
+            updated.add(authorityName);
+            return Collections.unmodifiableSortedSet(updated);
+        });
+    }
+
+    public void remove(String authorityName) {
+        version.incrementAndGet();
+        names.updateAndGet(current -> {
+            if (current == null || !current.contains(authorityName)) {
+                return current;
+            }
+            SortedSet<String> updated = new TreeSet<>(current);
+            updated.remove(authorityName);
+            return Collections.unmodifiableSortedSet(updated);
+        });
+    }
+
+    private Mono<SortedSet<String>> getNames() {
+        return Mono.defer(() -> {
+            SortedSet<String> current = names.get();
+            if (current != null) {
+                return Mono.just(current);
+            }
+            long loadedVersion = version.get();
+            return authorityRepository
+                .findAll()
+                .map(Authority::getName)
+                .collect(Collectors.toCollection(TreeSet::new))
+                .map(Collections::unmodifiableSortedSet)
+                .doOnNext(loaded -> {
+                    if (version.get() == loadedVersion) {
+                        names.compareAndSet(null, loaded);
+                    }
+                });
+        });
+    }
+}
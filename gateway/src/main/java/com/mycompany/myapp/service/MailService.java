@@ -1,27 +1,60 @@
 package com.mycompany.myapp.service;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.domain.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
  * Service for sending emails asynchronously.
+ * <p>
+ * The emails are queued, up to {@code application.mail.queue-capacity}, and rendered and sent on a dedicated thread. They
+ * are sent by batches of up to {@code application.mail.batch-size} emails, over a single SMTP connection per batch. The
+ * emails the SMTP server failed to accept are retried with an exponential backoff, while the next batches are sent. The
+ * number of queued emails is published in the {@value #QUEUED_METER_NAME} gauge, the SMTP sessions in the
+ * {@value #SEND_METER_NAME} timer, and the emails sent, failed and rejected because the queue was full in the
+ * {@value #MESSAGES_METER_NAME} counter. On shutdown, the queue is closed and the queued emails are sent, for up to
+ * {@code application.mail.shutdown-timeout}.
  */
 @Service
-public class MailService {
+public class MailService implements InitializingBean, DisposableBean {
+
+    public static final String QUEUED_METER_NAME = "mail.queued";
+
+    public static final String SEND_METER_NAME = "mail.send";
+
+    public static final String MESSAGES_METER_NAME = "mail.messages";
 
     private static final Logger LOG = LoggerFactory.getLogger(MailService.class);
 
@@ -33,30 +66,96 @@ public class MailService {
 
     private final JavaMailSender javaMailSender;
 
-    private final MessageSource messageSource;
+    private final MailTemplateRenderer mailTemplateRenderer;
+
+    private final ApplicationProperties.Mail properties;
+
+    private final Sinks.Many<PendingEmail> queue = Sinks.many().unicast().onBackpressureBuffer();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Scheduler scheduler;
+
+    private final Timer sendTimer;
+
+    private final Counter sentCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter rejectedCounter;
+
+    private final CountDownLatch drained = new CountDownLatch(1);
 
-    private final SpringTemplateEngine templateEngine;
+    private Disposable subscription;
 
     public MailService(
         JHipsterProperties jHipsterProperties,
         JavaMailSender javaMailSender,
-        MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        MailTemplateRenderer mailTemplateRenderer,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) {
         this.jHipsterProperties = jHipsterProperties;
         this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+        this.mailTemplateRenderer = mailTemplateRenderer;
+        this.properties = applicationProperties.getMail();
+        // a scheduled executor, as the batches wait for their max delay and the retries for their backoff
+        this.scheduler = Schedulers.fromExecutorService(
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("mail-")),
+            "mail"
+        );
+        Gauge.builder(QUEUED_METER_NAME, queued, AtomicInteger::get)
+            .description("Number of emails waiting to be sent")
+            .register(meterRegistry);
+        this.sendTimer = Timer.builder(SEND_METER_NAME)
+            .description("Latency of the SMTP sessions sending a batch of emails")
+            .register(meterRegistry);
+        this.sentCounter = messagesCounter("sent").register(meterRegistry);
+        this.failedCounter = messagesCounter("failed").register(meterRegistry);
+        this.rejectedCounter = messagesCounter("rejected").register(meterRegistry);
+    }
+
+    private static Counter.Builder messagesCounter(String result) {
+        return Counter.builder(MESSAGES_METER_NAME).description("Number of emails by result").tag("result", result);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        subscription = queue
+            .asFlux()
+            .publishOn(scheduler, properties.getBatchSize())
+            .bufferTimeout(properties.getBatchSize(), properties.getMaxDelay(), scheduler, true)
+            // a batch waiting for its retry does not hold the next ones, and there are no more batches than queued emails
+            .flatMap(this::send, properties.getQueueCapacity())
+            .doFinally(signal -> drained.countDown())
+            .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        Sinks.EmitResult result;
+        synchronized (queue) {
+            result = queue.tryEmitComplete();
+        }
+        // the last batch is sent at once when the queue completes, the ones waiting for a retry on their backoff
+        try {
+            if (result.isSuccess() && !drained.await(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                LOG.warn("{} emails were not sent before the shutdown", queued.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("{} emails were not sent before the shutdown", queued.get());
+        }
+        subscription.dispose();
+        scheduler.dispose();
     }
 
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        Mono.defer(() -> {
-            sendEmailSync(to, subject, content, isMultipart, isHtml);
-            return Mono.empty();
-        }).subscribe();
+        enqueue(new PendingEmail(to, () -> createMessage(to, subject, content, isMultipart, isHtml)));
     }
 
-    private void sendEmailSync(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+    private MimeMessage createMessage(String to, String subject, String content, boolean isMultipart, boolean isHtml)
+        throws MessagingException {
         LOG.debug(
             "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
@@ -68,38 +167,43 @@ public class MailService {
 
         // Prepare message using a Spring helper
         MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            LOG.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            LOG.warn("Email could not be sent to user '{}'", to, e);
-        }
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
+        message.setTo(to);
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(subject);
+        message.setText(content, isHtml);
+        return mimeMessage;
     }
 
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
-        Mono.defer(() -> {
-            sendEmailFromTemplateSync(user, templateName, titleKey);
-            return Mono.empty();
-        }).subscribe();
-    }
-
-    private void sendEmailFromTemplateSync(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             LOG.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
+        // the user may change before the email is rendered
+        User recipient = snapshot(user);
+        enqueue(new PendingEmail(recipient.getEmail(), () -> createMessageFromTemplate(recipient, templateName, titleKey)));
+    }
+
+    /**
+     * Copies the fields of the user which the email templates use.
+     */
+    private static User snapshot(User user) {
+        User recipient = new User();
+        recipient.setLogin(user.getLogin());
+        recipient.setEmail(user.getEmail());
+        recipient.setLangKey(user.getLangKey());
+        recipient.setActivationKey(user.getActivationKey());
+        recipient.setResetKey(user.getResetKey());
+        return recipient;
+    }
+
+    private MimeMessage createMessageFromTemplate(User user, String templateName, String titleKey) throws MessagingException {
         Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmailSync(user.getEmail(), subject, content, false, true);
+        Map<String, Object> variables = Map.of(USER, user, BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        String content = mailTemplateRenderer.render(templateName, locale, variables);
+        String subject = mailTemplateRenderer.getSubject(titleKey, locale);
+        return createMessage(user.getEmail(), subject, content, false, true);
     }
 
     public void sendActivationEmail(User user) {
@@ -116,4 +220,76 @@ public class MailService {
         LOG.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
     }
+
+    private void enqueue(PendingEmail email) {
+        if (queued.incrementAndGet() > properties.getQueueCapacity()) {
+            queued.decrementAndGet();
+            rejectedCounter.increment();
+            LOG.warn("Email could not be sent to user '{}', the mail queue is full", email.to());
+            return;
+        }
+        Sinks.EmitResult result;
+        synchronized (queue) {
+            result = queue.tryEmitNext(email);
+        }
+        if (result.isFailure()) {
+            queued.decrementAndGet();
+            LOG.warn("Email could not be sent to user '{}', the mail queue is closed", email.to());
+        }
+    }
+
+    private Mono<Void> send(List<PendingEmail> emails) {
+        Map<MimeMessage, String> messages = new LinkedHashMap<>();
+        for (PendingEmail email : emails) {
+            try {
+                messages.put(email.message().create(), email.to());
+            } catch (MessagingException | RuntimeException e) {
+                failedCounter.increment();
+                LOG.warn("Email could not be prepared for user '{}'", email.to(), e);
+            }
+        }
+        return Mono.fromRunnable(() -> sendTimer.record(() -> sendBatch(messages)))
+            .retryWhen(
+                Retry.backoff(properties.getMaxRetries(), properties.getMinBackoff())
+                    .filter(MailException.class::isInstance)
+                    .scheduler(scheduler)
+            )
+            .onErrorResume(e -> {
+                Throwable cause = Exceptions.isRetryExhausted(e) ? e.getCause() : e;
+                failedCounter.increment(messages.size());
+                messages.values().forEach(to -> LOG.warn("Email could not be sent to user '{}'", to, cause));
+                return Mono.empty();
+            })
+            .doFinally(signal -> queued.addAndGet(-emails.size()))
+            .then();
+    }
+
+    /**
+     * Sends the messages over a single SMTP connection, and keeps only the messages which could not be sent.
+     */
+    private void sendBatch(Map<MimeMessage, String> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        int size = messages.size();
+        try {
+            javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            messages.values().forEach(to -> LOG.debug("Sent email to User '{}'", to));
+            messages.clear();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                messages.keySet().retainAll(e.getFailedMessages().keySet());
+            }
+            throw e;
+        } finally {
+            sentCounter.increment(size - messages.size());
+        }
+    }
+
+    @FunctionalInterface
+    private interface MessageFactory {
+        MimeMessage create() throws MessagingException;
+    }
+
+    private record PendingEmail(String to, MessageFactory message) {}
 }
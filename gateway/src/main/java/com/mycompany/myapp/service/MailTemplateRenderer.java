@@ -0,0 +1,76 @@
+package com.mycompany.myapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mycompany.myapp.config.ApplicationProperties;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.cache.StandardCacheManager;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+/**
+ * Renders the email templates and resolves their subjects.
+ * <p>
+ * The emails have their own template engine, independent of {@code spring.thymeleaf.cache}: it keeps up to
+ * {@code application.mail.template-cache-size} parsed templates, shared by all the locales as the messages are only
+ * resolved when rendering, and compiles their SpEL expressions. The subjects are resolved once per title key and locale, and
+ * the same number of them is kept, as the locale comes from the user. A cache size of {@code 0} parses the templates and
+ * resolves the subjects on each email.
+ */
+@Component
+public class MailTemplateRenderer {
+
+    private static final String TEMPLATES_LOCATION = "templates/";
+
+    private static final String TEMPLATES_SUFFIX = ".html";
+
+    private final MessageSource messageSource;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final Cache<SubjectKey, String> subjects;
+
+    public MailTemplateRenderer(MessageSource messageSource, ApplicationProperties applicationProperties) {
+        this.messageSource = messageSource;
+        int cacheSize = applicationProperties.getMail().getTemplateCacheSize();
+        boolean cacheEnabled = cacheSize > 0;
+        this.subjects = cacheEnabled ? Caffeine.newBuilder().maximumSize(cacheSize).build() : null;
+
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix(TEMPLATES_LOCATION);
+        templateResolver.setSuffix(TEMPLATES_SUFFIX);
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateResolver.setCacheable(cacheEnabled);
+        templateResolver.setCacheTTLMs(null);
+
+        StandardCacheManager cacheManager = new StandardCacheManager();
+        cacheManager.setTemplateCacheInitialSize(cacheSize);
+        cacheManager.setTemplateCacheMaxSize(cacheSize);
+
+        this.templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setCacheManager(cacheManager);
+        templateEngine.setEnableSpringELCompiler(true);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+    }
+
+    public String render(String templateName, Locale locale, Map<String, Object> variables) {
+        return templateEngine.process(templateName, new Context(locale, variables));
+    }
+
+    public String getSubject(String titleKey, Locale locale) {
+        if (subjects == null) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects.get(new SubjectKey(titleKey, locale), key -> messageSource.getMessage(key.titleKey(), null, key.locale()));
+    }
+
+    private record SubjectKey(String titleKey, Locale locale) {}
+}
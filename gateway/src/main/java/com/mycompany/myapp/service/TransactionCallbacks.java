@@ -0,0 +1,43 @@
+package com.mycompany.myapp.service;
+
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the side effects of a write, such as the evictions of the cached users, once the surrounding transaction is
+ * committed.
+ * <p>
+ * A read between a write and its commit still sees the previous row: evicting a cached entry before the commit lets
+ * that read cache the previous row again, until the entry expires.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /**
+     * Runs an action after the current transaction commits, or at once outside of a transaction.
+     * The action does not run if the transaction rolls back.
+     * @param action the action to run.
+     * @return a {@link Mono} completing once the action is registered or run.
+     */
+    public static Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .flatMap(synchronizationManager -> {
+                if (!synchronizationManager.isSynchronizationActive()) {
+                    return Mono.<Void>fromRunnable(action);
+                }
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(action);
+                        }
+                    }
+                );
+                return Mono.<Void>empty();
+            })
+            .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(action));
+    }
+}
@@ -0,0 +1,285 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.PasswordHashingScheduler;
+import com.mycompany.myapp.security.SecurityUtils;
+import com.mycompany.myapp.service.dto.AdminUserDTO;
+import com.mycompany.myapp.service.dto.UserImportProgressDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+import tech.jhipster.security.RandomUtil;
+
+/**
+ * Service class for importing users in bulk.
+ * <p>
+ * The users are imported by chunks of {@code application.user-import.chunk-size} users: the rows of a chunk are validated
+ * against each other and their generated passwords are hashed in parallel on the {@link PasswordHashingScheduler}, before
+ * the transaction of the chunk checks them against the existing users with two queries, and writes the valid users and
+ * their authorities with one multi-row INSERT each. The invalid rows are skipped, and reported with the progress of their
+ * chunk. A chunk whose login or email was registered concurrently is rolled back and reported as failed, and the import
+ * goes on with the next chunk.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+
+    private final AuthorityRegistry authorityRegistry;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final PasswordHashingScheduler passwordHashingScheduler;
+
+    private final MailService mailService;
+
+    private final Validator validator;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final int chunkSize;
+
+    public UserImportService(
+        UserRepository userRepository,
+        AuthorityRegistry authorityRegistry,
+        PasswordEncoder passwordEncoder,
+        PasswordHashingScheduler passwordHashingScheduler,
+        MailService mailService,
+        Validator validator,
+        ReactiveTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userRepository = userRepository;
+        this.authorityRegistry = authorityRegistry;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingScheduler = passwordHashingScheduler;
+        this.mailService = mailService;
+        this.validator = validator;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.chunkSize = applicationProperties.getUserImport().getChunkSize();
+    }
+
+    /**
+     * Creates the given users, activated with a random password and a reset key like {@link UserService#createUser}, and
+     * sends them a creation email once their chunk is committed.
+     *
+     * @param userDTOs the users to create.
+     * @return the progress of the import, once per chunk.
+     */
+    public Flux<UserImportProgressDTO> importUsers(Flux<AdminUserDTO> userDTOs) {
+        return Mono.zip(
+            SecurityUtils.getCurrentUserLogin().defaultIfEmpty(Constants.SYSTEM),
+            authorityRegistry.getAuthorityNames().collect(Collectors.toSet())
+        ).flatMapMany(loginAndAuthorities -> {
+            ImportContext context = new ImportContext(loginAndAuthorities.getT1(), loginAndAuthorities.getT2());
+            return userDTOs
+                .index()
+                .buffer(chunkSize)
+                .index()
+                .concatMap(chunk -> importChunk(context, chunk.getT1() + 1, chunk.getT2()));
+        });
+    }
+
+    private Mono<UserImportProgressDTO> importChunk(ImportContext context, long chunk, List<Tuple2<Long, AdminUserDTO>> rows) {
+        List<String> errors = new ArrayList<>();
+        List<Tuple2<Long, AdminUserDTO>> validRows = validate(rows, errors);
+        // the hashing is kept out of the transaction, so the connection is held only for the queries
+        return hashPasswords(context, validRows)
+            .flatMap(users ->
+                findUsedLoginsAndEmails(validRows)
+                    .map(used -> availableUsers(validRows, users, used, errors))
+                    .flatMap(availableUsers -> userRepository.insertAllWithAuthorities(availableUsers).collectList())
+                    .as(transactionalOperator::transactional)
+            )
+            .map(users -> {
+                users.forEach(mailService::sendCreationEmail);
+                return progress(context, chunk, rows.size(), users.size(), errors);
+            })
+            .onErrorResume(DuplicateKeyException.class, e -> {
+                LOG.warn("Could not import the users of chunk {}: {}", chunk, e.getMessage());
+                errors.add("Chunk " + chunk + ": a login or an email was registered meanwhile, no user of the chunk was imported");
+                return Mono.just(progress(context, chunk, rows.size(), 0, errors));
+            });
+    }
+
+    private static UserImportProgressDTO progress(ImportContext context, long chunk, int rows, int imported, List<String> errors) {
+        UserImportProgressDTO progress = new UserImportProgressDTO();
+        progress.setChunk(chunk);
+        progress.setImported(imported);
+        progress.setSkipped(rows - imported);
+        progress.setTotalImported(context.imported.addAndGet(imported));
+        progress.setTotalSkipped(context.skipped.addAndGet(rows - imported));
+        progress.setErrors(errors);
+        LOG.debug("Imported users: {}", progress);
+        return progress;
+    }
+
+    /**
+     * Keeps the rows passing the bean validation, with a login and an email unique in their chunk.
+     */
+    private List<Tuple2<Long, AdminUserDTO>> validate(List<Tuple2<Long, AdminUserDTO>> rows, List<String> errors) {
+        List<Tuple2<Long, AdminUserDTO>> validRows = new ArrayList<>();
+        Set<String> logins = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Tuple2<Long, AdminUserDTO> row : rows) {
+            AdminUserDTO userDTO = row.getT2();
+            Set<ConstraintViolation<AdminUserDTO>> violations = validator.validate(userDTO);
+            if (!violations.isEmpty()) {
+                violations.forEach(violation -> errors.add(error(row, violation.getPropertyPath() + " " + violation.getMessage())));
+            } else if (userDTO.getId() != null) {
+                errors.add(error(row, "a new user cannot already have an ID"));
+            } else if (!logins.add(userDTO.getLogin().toLowerCase())) {
+                errors.add(error(row, "login already used"));
+            } else if (userDTO.getEmail() != null && !emails.add(userDTO.getEmail().toLowerCase())) {
+                errors.add(error(row, "email already used"));
+            } else {
+                validRows.add(row);
+            }
+        }
+        return validRows;
+    }
+
+    /**
+     * Reads the logins and the emails of the given rows which are already used, with one query each.
+     */
+    private Mono<Tuple2<Set<String>, Set<String>>> findUsedLoginsAndEmails(List<Tuple2<Long, AdminUserDTO>> rows) {
+        if (rows.isEmpty()) {
+            return Mono.just(Tuples.of(Set.<String>of(), Set.<String>of()));
+        }
+        Set<String> logins = rows.stream().map(row -> row.getT2().getLogin().toLowerCase()).collect(Collectors.toSet());
+        Set<String> emails = rows
+            .stream()
+            .map(row -> row.getT2().getEmail())
+            .filter(Objects::nonNull)
+            .map(String::toLowerCase)
+            .collect(Collectors.toSet());
+        Mono<Set<String>> usedLogins = userRepository.findAllByLoginIn(logins).map(User::getLogin).collect(Collectors.toSet());
+        Mono<Set<String>> usedEmails = emails.isEmpty()
+            ? Mono.just(Set.of())
+            : userRepository.findAllByEmailIn(emails).map(User::getEmail).collect(Collectors.toSet());
+        return Mono.zip(usedLogins, usedEmails);
+    }
+
+    /**
+     * Keeps the users of the rows whose login and email are not used yet.
+     */
+    private static List<User> availableUsers(
+        List<Tuple2<Long, AdminUserDTO>> rows,
+        List<User> users,
+        Tuple2<Set<String>, Set<String>> used,
+        List<String> errors
+    ) {
+        List<User> availableUsers = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (isAvailable(rows.get(i), used, errors)) {
+                availableUsers.add(users.get(i));
+            }
+        }
+        return availableUsers;
+    }
+
+    private static boolean isAvailable(Tuple2<Long, AdminUserDTO> row, Tuple2<Set<String>, Set<String>> used, List<String> errors) {
+        AdminUserDTO userDTO = row.getT2();
+        if (used.getT1().contains(userDTO.getLogin().toLowerCase())) {
+            errors.add(error(row, "login already used"));
+            return false;
+        }
+        if (userDTO.getEmail() != null && used.getT2().contains(userDTO.getEmail().toLowerCase())) {
+            errors.add(error(row, "email already used"));
+            return false;
+        }
+        return true;
+    }
+
+    private static String error(Tuple2<Long, AdminUserDTO> row, String message) {
+        return "Row " + (row.getT1() + 1) + " (" + row.getT2().getLogin() + "): " + message;
+    }
+
+    /**
+     * Creates the users of the given rows, in their order.
+     */
+    private Mono<List<User>> hashPasswords(ImportContext context, List<Tuple2<Long, AdminUserDTO>> rows) {
+        return Flux.fromIterable(rows)
+            .parallel()
+            .runOn(passwordHashingScheduler.getScheduler())
+            .map(row -> Tuples.of(row.getT1(), toUser(context, row.getT2())))
+            .sequential()
+            .sort(Comparator.comparing(Tuple2::getT1))
+            .map(Tuple2::getT2)
+            .collectList();
+    }
+
+    private User toUser(ImportContext context, AdminUserDTO userDTO) {
+        User user = new User();
+        user.setLogin(userDTO.getLogin().toLowerCase());
+        user.setFirstName(userDTO.getFirstName());
+        user.setLastName(userDTO.getLastName());
+        if (userDTO.getEmail() != null) {
+            user.setEmail(userDTO.getEmail().toLowerCase());
+        }
+        user.setImageUrl(userDTO.getImageUrl());
+        user.setLangKey(userDTO.getLangKey() == null ? Constants.DEFAULT_LANGUAGE : userDTO.getLangKey());
+        if (userDTO.getAuthorities() != null) {
+            userDTO
+                .getAuthorities()
+                .stream()
+                .filter(context.authorities::contains)
+                .forEach(name -> {
+                    Authority authority = new Authority();
+                    authority.setName(name);
+                    user.getAuthorities().add(authority);
+                });
+        }
+        user.setPassword(passwordEncoder.encode(RandomUtil.generatePassword()));
+        user.setResetKey(RandomUtil.generateResetKey());
+        user.setResetDate(Instant.now());
+        user.setActivated(true);
+        user.setCreatedBy(context.login);
+        user.setLastModifiedBy(context.login);
+        return user;
+    }
+
+    /**
+     * State of one import: the current user, the existing authorities, and the running totals.
+     */
+    private static final class ImportContext {
+
+        private final String login;
+
+        private final Set<String> authorities;
+
+        private final AtomicLong imported = new AtomicLong();
+
+        private final AtomicLong skipped = new AtomicLong();
+
+        private ImportContext(String login, Set<String> authorities) {
+            this.login = login;
+            this.authorities = authorities;
+        }
+    }
+}
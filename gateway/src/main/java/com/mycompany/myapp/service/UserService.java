@@ -3,10 +3,11 @@ package com.mycompany.myapp.service;
 import com.mycompany.myapp.config.Constants;
 import com.mycompany.myapp.domain.Authority;
 import com.mycompany.myapp.domain.User;
-import com.mycompany.myapp.repository.AuthorityRepository;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.security.PasswordHashingScheduler;
 import com.mycompany.myapp.security.SecurityUtils;
+import com.mycompany.myapp.security.UserDetailsCache;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
 import com.mycompany.myapp.service.dto.UserDTO;
 import java.time.Instant;
@@ -38,12 +39,24 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
-    private final AuthorityRepository authorityRepository;
+    private final AuthorityRegistry authorityRegistry;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final UserDetailsCache userDetailsCache;
+
+    private final PasswordHashingScheduler passwordHashingScheduler;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRegistry authorityRegistry,
+        UserDetailsCache userDetailsCache,
+        PasswordHashingScheduler passwordHashingScheduler
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.authorityRepository = authorityRepository;
+        this.authorityRegistry = authorityRegistry;
+        this.userDetailsCache = userDetailsCache;
+        this.passwordHashingScheduler = passwordHashingScheduler;
     }
 
     @Transactional
@@ -66,7 +79,7 @@ public class UserService {
         return userRepository
             .findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minus(1, ChronoUnit.DAYS)))
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(passwordHashingScheduler.getScheduler())
             .map(user -> {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
@@ -109,7 +122,7 @@ public class UserService {
                     return Mono.error(new EmailAlreadyUsedException());
                 }
             })
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(passwordHashingScheduler.getScheduler())
             .then(
                 Mono.fromCallable(() -> {
                     User newUser = new User();
@@ -131,16 +144,14 @@ public class UserService {
                     return newUser;
                 })
             )
-            .flatMap(newUser -> {
-                Set<Authority> authorities = new HashSet<>();
-                return authorityRepository
-                    .findById(AuthoritiesConstants.USER)
-                    .map(authorities::add)
+            .flatMap(newUser ->
+                authorityRegistry
+                    .resolve(Set.of(AuthoritiesConstants.USER))
+                    .doOnNext(authorities -> newUser.getAuthorities().addAll(authorities))
                     .thenReturn(newUser)
-                    .doOnNext(user -> user.setAuthorities(authorities))
                     .flatMap(this::saveUser)
-                    .doOnNext(user -> LOG.debug("Created Information for User: {}", user));
-            });
+                    .doOnNext(user -> LOG.debug("Created Information for User: {}", user))
+            );
     }
 
     @Transactional
@@ -158,11 +169,11 @@ public class UserService {
         } else {
             user.setLangKey(userDTO.getLangKey());
         }
-        return Flux.fromIterable(userDTO.getAuthorities() != null ? userDTO.getAuthorities() : new HashSet<>())
-            .flatMap(authorityRepository::findById)
-            .doOnNext(authority -> user.getAuthorities().add(authority))
-            .then(Mono.just(user))
-            .publishOn(Schedulers.boundedElastic())
+        return authorityRegistry
+            .resolve(userDTO.getAuthorities())
+            .doOnNext(authorities -> user.getAuthorities().addAll(authorities))
+            .thenReturn(user)
+            .publishOn(passwordHashingScheduler.getScheduler())
             .map(newUser -> {
                 String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
                 newUser.setPassword(encryptedPassword);
@@ -199,10 +210,9 @@ public class UserService {
                 managedAuthorities.clear();
                 return userRepository
                     .deleteUserAuthorities(user.getId())
-                    .thenMany(Flux.fromIterable(userDTO.getAuthorities()))
-                    .flatMap(authorityRepository::findById)
-                    .map(managedAuthorities::add)
-                    .then(Mono.just(user));
+                    .then(authorityRegistry.resolve(userDTO.getAuthorities()))
+                    .doOnNext(managedAuthorities::addAll)
+                    .thenReturn(user);
             })
             .flatMap(this::saveUser)
             .doOnNext(user -> LOG.debug("Changed Information for User: {}", user))
@@ -213,7 +223,12 @@ public class UserService {
     public Mono<Void> deleteUser(String login) {
         return userRepository
             .findOneByLogin(login)
-            .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .flatMap(user ->
+                userRepository
+                    .delete(user)
+                    .then(TransactionCallbacks.afterCommit(() -> userDetailsCache.evict(user.getId())))
+                    .thenReturn(user)
+            )
             .doOnNext(user -> LOG.debug("Deleted User: {}", user))
             .then();
     }
@@ -263,6 +278,9 @@ public class UserService {
                         Flux.fromIterable(user.getAuthorities())
                             .flatMap(authority -> userRepository.saveUserAuthority(savedUser.getId(), authority.getName()))
                             .then(Mono.just(savedUser))
+                    )
+                    .flatMap(savedUser ->
+                        TransactionCallbacks.afterCommit(() -> userDetailsCache.evict(savedUser.getId())).thenReturn(savedUser)
                     );
             });
     }
@@ -271,7 +289,7 @@ public class UserService {
     public Mono<Void> changePassword(String currentClearTextPassword, String newPassword) {
         return SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(passwordHashingScheduler.getScheduler())
             .map(user -> {
                 String currentEncryptedPassword = user.getPassword();
                 if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
@@ -335,8 +353,7 @@ public class UserService {
      * Gets a list of all the authorities.
      * @return a list of all the authorities.
      */
-    @Transactional(readOnly = true)
     public Flux<String> getAuthorities() {
-        return authorityRepository.findAll().map(Authority::getName);
+        return authorityRegistry.getAuthorityNames();
     }
 }
@@ -0,0 +1,89 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO reporting the progress of a bulk user import, once per chunk of users.
+ */
+public class UserImportProgressDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long chunk;
+
+    private int imported;
+
+    private int skipped;
+
+    private long totalImported;
+
+    private long totalSkipped;
+
+    private List<String> errors = new ArrayList<>();
+
+    public UserImportProgressDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public long getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(long chunk) {
+        this.chunk = chunk;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public long getTotalImported() {
+        return totalImported;
+    }
+
+    public void setTotalImported(long totalImported) {
+        this.totalImported = totalImported;
+    }
+
+    public long getTotalSkipped() {
+        return totalSkipped;
+    }
+
+    public void setTotalSkipped(long totalSkipped) {
+        this.totalSkipped = totalSkipped;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserImportProgressDTO{" +
+            "chunk=" + chunk +
+            ", imported=" + imported +
+            ", skipped=" + skipped +
+            ", totalImported=" + totalImported +
+            ", totalSkipped=" + totalSkipped +
+            "}";
+    }
+}
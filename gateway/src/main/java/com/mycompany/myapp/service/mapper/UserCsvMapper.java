@@ -0,0 +1,119 @@
+package com.mycompany.myapp.service.mapper;
+
+import com.mycompany.myapp.service.dto.AdminUserDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Mapper reading {@link AdminUserDTO} from the lines of a CSV document.
+ * <p>
+ * The first line is the header, naming the columns after the {@link AdminUserDTO} properties: {@code login},
+ * {@code email}, {@code firstName}, {@code lastName}, {@code imageUrl}, {@code langKey} and {@code authorities}, whose
+ * values are separated by {@value #AUTHORITIES_SEPARATOR}. The values containing a comma must be quoted with {@code "}.
+ */
+@Service
+public class UserCsvMapper {
+
+    public static final String AUTHORITIES_SEPARATOR = ";";
+
+    private static final char SEPARATOR = ',';
+
+    private static final char QUOTE = '"';
+
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private static final Map<String, BiConsumer<AdminUserDTO, String>> COLUMNS = Map.of(
+        "login",
+        AdminUserDTO::setLogin,
+        "email",
+        AdminUserDTO::setEmail,
+        "firstName",
+        AdminUserDTO::setFirstName,
+        "lastName",
+        AdminUserDTO::setLastName,
+        "imageUrl",
+        AdminUserDTO::setImageUrl,
+        "langKey",
+        AdminUserDTO::setLangKey,
+        "authorities",
+        (userDTO, authorities) ->
+            userDTO.setAuthorities(Arrays.stream(authorities.split(AUTHORITIES_SEPARATOR)).map(String::trim).collect(Collectors.toSet()))
+    );
+
+    /**
+     * Maps the lines of a CSV document, header included, to users.
+     *
+     * @param lines the lines of the CSV document.
+     * @return the users, one per line after the header.
+     * @throws IllegalArgumentException if the header names an unknown column.
+     */
+    public Flux<AdminUserDTO> csvLinesToAdminUserDTOs(Flux<String> lines) {
+        return lines
+            .filter(line -> !line.isBlank())
+            .switchOnFirst((header, rows) -> {
+                if (!header.hasValue()) {
+                    return rows.thenMany(Flux.<AdminUserDTO>empty());
+                }
+                List<BiConsumer<AdminUserDTO, String>> columns = parseLine(header.get().replace(BYTE_ORDER_MARK, ""))
+                    .stream()
+                    .map(UserCsvMapper::column)
+                    .toList();
+                return rows.skip(1).map(row -> csvLineToAdminUserDTO(columns, parseLine(row)));
+            });
+    }
+
+    private static BiConsumer<AdminUserDTO, String> column(String name) {
+        BiConsumer<AdminUserDTO, String> column = COLUMNS.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown CSV column '" + name + "', expected one of " + COLUMNS.keySet());
+        }
+        return column;
+    }
+
+    private static AdminUserDTO csvLineToAdminUserDTO(List<BiConsumer<AdminUserDTO, String>> columns, List<String> values) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        for (int i = 0; i < Math.min(columns.size(), values.size()); i++) {
+            if (!values.get(i).isEmpty()) {
+                columns.get(i).accept(userDTO, values.get(i));
+            }
+        }
+        return userDTO;
+    }
+
+    /**
+     * Splits a line on the commas which are not quoted, and unquotes the values.
+     */
+    static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != QUOTE) {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    value.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+}
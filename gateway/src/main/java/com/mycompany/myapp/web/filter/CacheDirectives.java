@@ -0,0 +1,42 @@
+package com.mycompany.myapp.web.filter;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * The directives of a {@code Cache-Control} header, by lower case name.
+ */
+record CacheDirectives(Map<String, String> directives) {
+    static CacheDirectives of(HttpHeaders headers) {
+        Map<String, String> directives = new HashMap<>();
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                int equals = directive.indexOf('=');
+                String name = (equals < 0 ? directive : directive.substring(0, equals)).trim().toLowerCase(Locale.ROOT);
+                String argument = equals < 0 ? "" : directive.substring(equals + 1).trim().replace("\"", "");
+                if (!name.isEmpty()) {
+                    directives.putIfAbsent(name, argument);
+                }
+            }
+        }
+        return new CacheDirectives(directives);
+    }
+
+    boolean has(String directive) {
+        return directives.containsKey(directive);
+    }
+
+    String get(String directive) {
+        return directives.get(directive);
+    }
+
+    /**
+     * Whether the response to an authenticated request may be given to the other users of the same scope, with
+     * {@code public} or {@code s-maxage} (RFC 9111, section 3.5).
+     */
+    boolean sharedBetweenUsers() {
+        return !has("no-store") && !has("private") && (has("public") || has("s-maxage"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.mycompany.myapp.web.filter;
+
+import java.util.Arrays;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Matches the request paths against a set of prefixes, compiled once into a prefix trie, so matching a path costs one
+ * walk over its characters, without regular expression nor allocation.
+ * <p>
+ * A prefix ending with {@code /**}, like {@code /app/**}, matches like the same {@link ServerWebExchangeMatcher} path
+ * pattern: {@code /app} and the paths under {@code /app/}, but not {@code /application}. The other prefixes match any
+ * path starting with them, like {@link String#startsWith(String)}.
+ */
+public final class PathPrefixMatcher implements ServerWebExchangeMatcher {
+
+    private static final String ANY_SUB_PATH = "/**";
+
+    private final Node root = new Node();
+
+    private PathPrefixMatcher(String... prefixes) {
+        for (String prefix : prefixes) {
+            if (prefix.endsWith(ANY_SUB_PATH)) {
+                root.add(prefix, prefix.length() - ANY_SUB_PATH.length()).segment = true;
+            } else {
+                root.add(prefix, prefix.length()).prefix = true;
+            }
+        }
+    }
+
+    public static PathPrefixMatcher of(String... prefixes) {
+        return new PathPrefixMatcher(prefixes);
+    }
+
+    public boolean matches(String path) {
+        Node node = root;
+        int i = 0;
+        while (true) {
+            if (node.prefix || (node.segment && (i == path.length() || path.charAt(i) == '/'))) {
+                return true;
+            }
+            if (i == path.length()) {
+                return false;
+            }
+            node = node.child(path.charAt(i++));
+            if (node == null) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public Mono<MatchResult> matches(ServerWebExchange exchange) {
+        return matches(exchange.getRequest().getPath().pathWithinApplication().value()) ? MatchResult.match() : MatchResult.notMatch();
+    }
+
+    private static final class Node {
+
+        private char[] keys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        /**
+         * Whether the paths starting with this node match.
+         */
+        private boolean prefix;
+
+        /**
+         * Whether the paths ending at this node, or continuing with a {@code /}, match.
+         */
+        private boolean segment;
+
+        private Node child(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node add(String prefix, int length) {
+            Node node = this;
+            for (int i = 0; i < length; i++) {
+                char key = prefix.charAt(i);
+                Node child = node.child(key);
+                if (child == null) {
+                    child = new Node();
+                    node.keys = Arrays.copyOf(node.keys, node.keys.length + 1);
+                    node.keys[node.keys.length - 1] = key;
+                    node.children = Arrays.copyOf(node.children, node.children.length + 1);
+                    node.children[node.children.length - 1] = child;
+                }
+                node = child;
+            }
+            return node;
+        }
+    }
+}
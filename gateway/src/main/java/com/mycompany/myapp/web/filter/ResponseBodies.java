@@ -0,0 +1,29 @@
+package com.mycompany.myapp.web.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Mono;
+
+/**
+ * Buffers the bodies of the routed responses which are kept after they are written, to be cached or shared.
+ */
+final class ResponseBodies {
+
+    private ResponseBodies() {}
+
+    /**
+     * @param body the body of a response, which buffers are released.
+     * @return the bytes of the body, empty if it has none.
+     */
+    static Mono<byte[]> join(Publisher<? extends DataBuffer> body) {
+        return DataBufferUtils.join(body)
+            .map(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                return bytes;
+            })
+            .defaultIfEmpty(new byte[0]);
+    }
+}
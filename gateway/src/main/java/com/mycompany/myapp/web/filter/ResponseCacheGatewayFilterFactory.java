@@ -0,0 +1,362 @@
+package com.mycompany.myapp.web.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches in memory the responses to the {@code GET} requests routed to the services, so their hot read endpoints are served
+ * by the gateway.
+ * <p>
+ * The responses are cached as a shared cache would (RFC 9111): only a {@code 200 OK} with a {@code Content-Length} up to
+ * {@code application.response-cache.maximum-entry-size}, whose {@code Cache-Control} gives a freshness lifetime with
+ * {@code s-maxage}, {@code max-age} or {@code no-cache}, without {@code no-store} nor {@code private}. The response to an
+ * authenticated request also needs {@code public} or {@code s-maxage}. The entries are keyed by route, path, query, negotiation
+ * headers and authorities of the user, and weighed by their body size, up to {@code application.response-cache.maximum-memory} in total.
+ * <p>
+ * A stale entry with an {@code ETag} is kept for {@code application.response-cache.stale-time-to-live}, and revalidated with
+ * an {@code If-None-Match} request, which the service answers with a {@code 304 Not Modified} while it is current. The
+ * concurrent misses are coalesced by the {@link SingleFlightGatewayFilterFactory} ordered after this filter. The unsafe
+ * requests evict the entries of their path. Hit and miss counts are published to Micrometer under the {@value #CACHE_NAME}
+ * cache name. It is disabled with {@code application.response-cache.enabled: false}.
+ * <p>
+ * It is added to the {@code spring.cloud.gateway.discovery.locator.filters} of the routes to the services, rather than to the
+ * default filters of the routes to the gateway itself: the services send a cacheable {@code Cache-Control} on their hot read
+ * endpoints, and Spring Security marks their other responses {@code no-store}.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    public static final String CACHE_NAME = "responses";
+
+    /**
+     * Before {@link NettyWriteResponseFilter}, which writes the response body through the response of the exchange it is given.
+     */
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseCacheGatewayFilterFactory.class);
+
+    private final Cache<RoutedRequestKey, CachedResponse> cache;
+
+    private final long maximumEntrySize;
+
+    private final Duration maximumTimeToLive;
+
+    private final Duration staleTimeToLive;
+
+    private final Clock clock;
+
+    @Autowired
+    public ResponseCacheGatewayFilterFactory(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(applicationProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    ResponseCacheGatewayFilterFactory(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        ApplicationProperties.ResponseCache properties = applicationProperties.getResponseCache();
+        this.maximumEntrySize = properties.getMaximumEntrySize().toBytes();
+        this.maximumTimeToLive = properties.getMaximumTimeToLive();
+        this.staleTimeToLive = properties.getStaleTimeToLive();
+        if (properties.isEnabled()) {
+            LOG.debug("Caching up to {} of responses", properties.getMaximumMemory());
+            this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumMemory().toBytes())
+                .weigher((RoutedRequestKey key, CachedResponse response) -> response.body().length)
+                .expireAfter(new UntilRetentionEnds())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        return new OrderedGatewayFilter(this::filter, ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (cache == null) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (!HttpMethod.GET.equals(method)) {
+            if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method) || HttpMethod.TRACE.equals(method)) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange).then(Mono.fromRunnable(() -> evictAfterUnsafeRequest(exchange)));
+        }
+        CacheDirectives requestDirectives = CacheDirectives.of(request.getHeaders());
+        if (requestDirectives.has("no-store") || request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            return chain.filter(exchange);
+        }
+        return exchange
+            .getPrincipal()
+            .map(RoutedRequestKey::scope)
+            .defaultIfEmpty(RoutedRequestKey.ANONYMOUS)
+            .flatMap(scope -> {
+                RoutedRequestKey key = RoutedRequestKey.of(exchange, scope);
+                CachedResponse cached = cache.getIfPresent(key);
+                if (cached == null || cached.varies(request.getHeaders())) {
+                    return route(exchange, chain, key, null);
+                }
+                boolean revalidationRequested = requestDirectives.has("no-cache") || "0".equals(requestDirectives.get("max-age"));
+                if (!revalidationRequested && cached.isFresh(clock.instant())) {
+                    return write(exchange, exchange.getResponse(), cached);
+                }
+                return route(exchange, chain, key, cached.eTag() != null ? cached : null);
+            });
+    }
+
+    /**
+     * Routes the request to the service, revalidating the stale response if there is one, and caches the response.
+     */
+    private Mono<Void> route(ServerWebExchange exchange, GatewayFilterChain chain, RoutedRequestKey key, CachedResponse stale) {
+        ServerWebExchange caching = exchange
+            .mutate()
+            .request(revalidation(exchange.getRequest(), stale))
+            .response(new CachingResponse(exchange, key, stale))
+            .build();
+        return chain.filter(caching);
+    }
+
+    private static ServerHttpRequest revalidation(ServerHttpRequest request, CachedResponse stale) {
+        if (stale == null) {
+            return request;
+        }
+        return request.mutate().headers(headers -> headers.setIfNoneMatch(stale.eTag())).build();
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ServerHttpResponse response, CachedResponse cached) {
+        HttpHeaders headers = response.getHeaders();
+        // the stored values are immutable, and the response headers may still be added to
+        cached.headers().forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+        headers.set(HttpHeaders.AGE, String.valueOf(Duration.between(cached.storedAt(), clock.instant()).toSeconds()));
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().getIfNoneMatch();
+        if (cached.eTag() != null && (ifNoneMatch.contains(cached.eTag()) || ifNoneMatch.contains("*"))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void evictAfterUnsafeRequest(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null && status.isError()) {
+            return;
+        }
+        String routeId = RoutedRequestKey.routeId(exchange);
+        String path = exchange.getRequest().getURI().getRawPath();
+        // unsafe requests are rare next to reads, so walking the entries is cheaper than indexing them by path
+        cache.asMap().keySet().removeIf(key -> key.routeId().equals(routeId) && key.path().equals(path));
+    }
+
+    /**
+     * Gives the lifetime of a response, or {@code null} if it cannot be cached.
+     */
+    private Duration freshnessLifetime(HttpStatusCode status, HttpHeaders headers, boolean authenticated) {
+        if (
+            status == null ||
+            status.value() != HttpStatus.OK.value() ||
+            headers.getContentLength() < 0 ||
+            headers.getContentLength() > maximumEntrySize ||
+            headers.containsKey(HttpHeaders.SET_COOKIE) ||
+            headers.getVary().contains("*")
+        ) {
+            return null;
+        }
+        CacheDirectives cacheControl = CacheDirectives.of(headers);
+        if (cacheControl.has("no-store") || cacheControl.has("private")) {
+            return null;
+        }
+        if (authenticated && !cacheControl.sharedBetweenUsers()) {
+            return null;
+        }
+        if (cacheControl.has("no-cache")) {
+            return Duration.ZERO;
+        }
+        String sharedMaxAge = cacheControl.get("s-maxage");
+        String maxAge = sharedMaxAge != null ? sharedMaxAge : cacheControl.get("max-age");
+        if (maxAge == null) {
+            return null;
+        }
+        try {
+            Duration lifetime = Duration.ofSeconds(Math.max(0, Long.parseLong(maxAge)));
+            return lifetime.compareTo(maximumTimeToLive) < 0 ? lifetime : maximumTimeToLive;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static HttpHeaders copyOf(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> copy.put(name, List.copyOf(values)));
+        copy.remove(HttpHeaders.AGE);
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+
+    /**
+     * Caches the response routed to the service, and answers with the cached response when the service tells it is still
+     * current.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private final RoutedRequestKey key;
+
+        private final CachedResponse stale;
+
+        private CachingResponse(ServerWebExchange exchange, RoutedRequestKey key, CachedResponse stale) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.stale = stale;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            boolean authenticated = !RoutedRequestKey.ANONYMOUS.equals(key.scope());
+            if (stale != null && status != null && status.value() == HttpStatus.NOT_MODIFIED.value()) {
+                // the 304 headers update the stored ones, as its body is the stored one
+                HttpHeaders updated = new HttpHeaders();
+                updated.putAll(stale.headers());
+                getHeaders().forEach((name, values) -> {
+                    if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                        updated.put(name, values);
+                    }
+                });
+                Duration lifetime = freshnessLifetime(HttpStatus.OK, updated, authenticated);
+                Duration updatedLifetime = lifetime != null ? lifetime : Duration.ZERO;
+                CachedResponse revalidated = stale.revalidated(copyOf(updated), updatedLifetime, clock.instant());
+                if (lifetime != null) {
+                    store(revalidated);
+                } else {
+                    cache.invalidate(key);
+                }
+                return Flux.from(body).doOnNext(DataBufferUtils::release).then(write(exchange, getDelegate(), revalidated));
+            }
+            Duration lifetime = freshnessLifetime(status, getHeaders(), authenticated);
+            if (lifetime == null) {
+                return super.writeWith(body);
+            }
+            return ResponseBodies.join(body)
+                .flatMap(bytes -> {
+                    HttpHeaders headers = copyOf(getHeaders());
+                    store(new CachedResponse(headers, bytes, headers.getETag(), varying(headers), clock.instant(), lifetime));
+                    return super.writeWith(Mono.fromSupplier(() -> bufferFactory().wrap(bytes)));
+                });
+        }
+
+        private Map<String, List<String>> varying(HttpHeaders headers) {
+            HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+            return headers
+                .getVary()
+                .stream()
+                .collect(Collectors.toMap(name -> name.toLowerCase(Locale.ROOT), name -> requestHeaders.getOrEmpty(name), (a, b) -> a));
+        }
+
+        private void store(CachedResponse response) {
+            Duration retention = retention(response);
+            if (!retention.isNegative() && !retention.isZero()) {
+                cache.put(key, response);
+            } else {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    private Duration retention(CachedResponse response) {
+        return response.eTag() != null ? response.lifetime().plus(staleTimeToLive) : response.lifetime();
+    }
+
+    /**
+     * A response stored in the cache, fresh for {@code lifetime} from {@code storedAt}.
+     */
+    private record CachedResponse(
+        HttpHeaders headers,
+        byte[] body,
+        String eTag,
+        Map<String, List<String>> varying,
+        Instant storedAt,
+        Duration lifetime
+    ) {
+        boolean isFresh(Instant now) {
+            return storedAt.plus(lifetime).isAfter(now);
+        }
+
+        /**
+         * Whether the request headers named by the {@code Vary} header of the response differ from the stored ones.
+         */
+        boolean varies(HttpHeaders requestHeaders) {
+            for (Map.Entry<String, List<String>> entry : varying.entrySet()) {
+                if (!Objects.equals(entry.getValue(), requestHeaders.getOrEmpty(entry.getKey()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        CachedResponse revalidated(HttpHeaders updatedHeaders, Duration updatedLifetime, Instant now) {
+            return new CachedResponse(updatedHeaders, body, eTag, varying, now, updatedLifetime);
+        }
+    }
+
+    private final class UntilRetentionEnds implements Expiry<RoutedRequestKey, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(RoutedRequestKey key, CachedResponse response, long currentTime) {
+            return retention(response).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(RoutedRequestKey key, CachedResponse response, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(RoutedRequestKey key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.mycompany.myapp.web.filter;
+
+import java.security.Principal;
+import java.util.stream.Collectors;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Identifies the requests routed to a service which get the same response: same route, path, query, content negotiation
+ * headers and scope.
+ *
+ * @param headers the values of the request headers which change the response, as the services seldom send {@code Vary}.
+ * @param scope who the response is for, like the authorities or the name of the user.
+ */
+record RoutedRequestKey(String routeId, String path, String query, String headers, String scope) {
+    /**
+     * The scope of the anonymous requests.
+     */
+    static final String ANONYMOUS = "";
+
+    private static final String[] NEGOTIATION_HEADERS = { HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE };
+
+    /**
+     * @param exchange the exchange of the request.
+     * @param scope who the response is for.
+     * @param headerNames the other request headers which change the response.
+     * @return the key of the request.
+     */
+    static RoutedRequestKey of(ServerWebExchange exchange, String scope, String... headerNames) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder headers = new StringBuilder();
+        for (String headerName : NEGOTIATION_HEADERS) {
+            headers.append(request.getHeaders().get(headerName)).append('|');
+        }
+        for (String headerName : headerNames) {
+            headers.append(request.getHeaders().get(headerName)).append('|');
+        }
+        String path = request.getURI().getRawPath();
+        return new RoutedRequestKey(routeId(exchange), path, request.getURI().getRawQuery(), headers.toString(), scope);
+    }
+
+    /**
+     * @param principal the user of the request.
+     * @return the sorted authorities of the user, which the responses of the services depend on, or its name.
+     */
+    static String scope(Principal principal) {
+        if (principal instanceof Authentication authentication) {
+            return authentication
+                .getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(",", "[", "]"));
+        }
+        return principal.getName();
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "";
+    }
+}
@@ -0,0 +1,248 @@
+package com.mycompany.myapp.web.filter;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Routes the identical {@code GET} requests received at the same time once: the first one is routed to the service, and the
+ * next ones wait for its response, buffered and written to each of them.
+ * <p>
+ * The requests are identical when they have the same route, path, query, content negotiation and conditional headers, and
+ * come from users with the same authorities, like the entries of the {@link ResponseCacheGatewayFilterFactory}. A response is
+ * shared when it has a {@code Content-Length} up to {@code application.single-flight.maximum-response-size} and no
+ * {@code Set-Cookie}, and is not streamed: otherwise the waiting requests are routed on their own as soon as the first response
+ * starts. A response is only shared with the other users when its {@code Cache-Control} allows it, with {@code public} or
+ * {@code s-maxage}: the waiting requests of the other users are routed on their own once it is received. The requests with
+ * an {@code Upgrade} header, like the WebSocket handshakes, are always routed on their own.
+ * <p>
+ * The requests routed and coalesced are counted in the {@value #REQUESTS_METER_NAME} counter, their ratio is published in the
+ * {@value #COALESCING_RATIO_METER_NAME} gauge, and the time the coalesced requests waited for the first one in the
+ * {@value #WAIT_METER_NAME} timer. The first requests which failed before their response started, the waiting requests being
+ * routed on their own, are counted in the {@value #LEADER_FAILURES_METER_NAME} counter. It is disabled with
+ * {@code application.single-flight.enabled: false}.
+ */
+@Component
+public class SingleFlightGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    public static final String REQUESTS_METER_NAME = "gateway.single-flight.requests";
+
+    public static final String COALESCING_RATIO_METER_NAME = "gateway.single-flight.coalescing.ratio";
+
+    public static final String WAIT_METER_NAME = "gateway.single-flight.wait";
+
+    public static final String LEADER_FAILURES_METER_NAME = "gateway.single-flight.leader.failures";
+
+    /**
+     * After {@link ResponseCacheGatewayFilterFactory}, so the cache hits are not waited for, and before
+     * {@link NettyWriteResponseFilter}, which writes the response body through the response of the exchange it is given.
+     */
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final Map<RoutedRequestKey, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    private final long maximumResponseSize;
+
+    private final Counter routedCounter;
+
+    private final Counter coalescedCounter;
+
+    private final Timer waitTimer;
+
+    private final Counter leaderFailuresCounter;
+
+    public SingleFlightGatewayFilterFactory(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.SingleFlight properties = applicationProperties.getSingleFlight();
+        this.enabled = properties.isEnabled();
+        this.maximumResponseSize = properties.getMaximumResponseSize().toBytes();
+        this.routedCounter = requestsCounter("routed").register(meterRegistry);
+        this.coalescedCounter = requestsCounter("coalesced").register(meterRegistry);
+        Gauge.builder(COALESCING_RATIO_METER_NAME, this, SingleFlightGatewayFilterFactory::coalescingRatio)
+            .description("Share of the identical requests which waited for the response of the first one")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder(WAIT_METER_NAME)
+            .description("Time the identical requests waited for the response of the first one")
+            .register(meterRegistry);
+        this.leaderFailuresCounter = Counter.builder(LEADER_FAILURES_METER_NAME)
+            .description("Number of first requests which failed before their response started, releasing the waiting requests")
+            .register(meterRegistry);
+    }
+
+    private static Counter.Builder requestsCounter(String outcome) {
+        return Counter.builder(REQUESTS_METER_NAME).description("Number of GET requests by outcome").tag("outcome", outcome);
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        return new OrderedGatewayFilter(this::filter, ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (
+            !enabled ||
+            !HttpMethod.GET.equals(exchange.getRequest().getMethod()) ||
+            exchange.getRequest().getHeaders().containsKey(HttpHeaders.RANGE) ||
+            exchange.getRequest().getHeaders().containsKey(HttpHeaders.UPGRADE)
+        ) {
+            return chain.filter(exchange);
+        }
+        return exchange
+            .getPrincipal()
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(principal -> {
+                String scope = principal.map(RoutedRequestKey::scope).orElse(RoutedRequestKey.ANONYMOUS);
+                String user = principal.map(Principal::getName).orElse(RoutedRequestKey.ANONYMOUS);
+                RoutedRequestKey key = RoutedRequestKey.of(exchange, scope, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+                Sinks.One<SharedResponse> flight = Sinks.one();
+                Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, flight);
+                if (leader != null) {
+                    return follow(exchange, chain, leader, user);
+                }
+                routedCounter.increment();
+                SharingResponse sharing = new SharingResponse(exchange.getResponse(), key, flight, user);
+                return chain
+                    .filter(exchange.mutate().response(sharing).build())
+                    .doOnError(e -> {
+                        if (!sharing.started) {
+                            leaderFailuresCounter.increment();
+                        }
+                    })
+                    .doFinally(signal -> sharing.release());
+            });
+    }
+
+    /**
+     * Waits for the response of the first request, or routes the request if that response cannot be shared with its user.
+     */
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, Sinks.One<SharedResponse> leader, String user) {
+        long start = System.nanoTime();
+        return leader
+            .asMono()
+            .filter(response -> response.isFor(user))
+            .flatMap(response -> {
+                // the requests released to be routed on their own did not wait for a response
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                coalescedCounter.increment();
+                return write(exchange.getResponse(), response).thenReturn(Boolean.TRUE);
+            })
+            .switchIfEmpty(
+                Mono.defer(() -> {
+                    routedCounter.increment();
+                    return chain.filter(exchange).thenReturn(Boolean.TRUE);
+                })
+            )
+            .then();
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        // the shared values are immutable, and the response headers may still be added to
+        shared.headers().forEach((name, values) -> response.getHeaders().put(name, new ArrayList<>(values)));
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body())));
+    }
+
+    private double coalescingRatio() {
+        double coalesced = coalescedCounter.count();
+        double total = coalesced + routedCounter.count();
+        return total == 0 ? 0 : coalesced / total;
+    }
+
+    /**
+     * Buffers the response of the first request, to share it with the identical requests waiting for it.
+     */
+    private final class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final RoutedRequestKey key;
+
+        private final Sinks.One<SharedResponse> flight;
+
+        private final String user;
+
+        private volatile boolean started;
+
+        private SharingResponse(ServerHttpResponse delegate, RoutedRequestKey key, Sinks.One<SharedResponse> flight, String user) {
+            super(delegate);
+            this.key = key;
+            this.flight = flight;
+            this.user = user;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            started = true;
+            HttpStatusCode status = getStatusCode();
+            long contentLength = getHeaders().getContentLength();
+            if (
+                status == null ||
+                contentLength < 0 ||
+                contentLength > maximumResponseSize ||
+                getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+            ) {
+                release();
+                return super.writeWith(body);
+            }
+            return ResponseBodies.join(body).flatMap(bytes -> {
+                HttpHeaders headers = new HttpHeaders();
+                getHeaders().forEach((name, values) -> headers.put(name, List.copyOf(values)));
+                boolean sharedBetweenUsers = CacheDirectives.of(headers).sharedBetweenUsers();
+                flight.tryEmitValue(new SharedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), bytes, user, sharedBetweenUsers));
+                return super.writeWith(Mono.fromSupplier(() -> bufferFactory().wrap(bytes)));
+            });
+        }
+
+        /**
+         * The streamed responses, like the NDJSON ones, are written as they come rather than buffered.
+         */
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            started = true;
+            release();
+            return super.writeAndFlushWith(body);
+        }
+
+        /**
+         * Routes the waiting requests on their own, if the response was not shared with them.
+         */
+        private void release() {
+            inFlight.remove(key, flight);
+            flight.tryEmitEmpty();
+        }
+    }
+
+    /**
+     * The response of the first request, of the given user.
+     */
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String user, boolean sharedBetweenUsers) {
+        boolean isFor(String otherUser) {
+            return sharedBetweenUsers || user.equals(otherUser);
+        }
+    }
+}
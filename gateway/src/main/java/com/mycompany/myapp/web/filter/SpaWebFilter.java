@@ -7,22 +7,34 @@ import reactor.core.publisher.Mono;
 
 public class SpaWebFilter implements WebFilter {
 
+    private static final PathPrefixMatcher SERVER_PATHS = PathPrefixMatcher.of("/api", "/management", "/v3/api-docs", "/services");
+
     /**
      * Forwards any unmapped paths (except those containing a period) to the client {@code index.html}.
      */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        String path = exchange.getRequest().getURI().getPath();
-        if (
-            !path.startsWith("/api") &&
-            !path.startsWith("/management") &&
-            !path.startsWith("/v3/api-docs") &&
-            !path.startsWith("/services") &&
-            !path.contains(".") &&
-            path.matches("/(.*)")
-        ) {
+        if (isClientRoute(exchange.getRequest().getURI().getPath())) {
             return chain.filter(exchange.mutate().request(exchange.getRequest().mutate().path("/index.html").build()).build());
         }
         return chain.filter(exchange);
     }
+
+    /**
+     * Whether the path is a route of the client application: an absolute path, outside of the server paths, without
+     * period nor line terminator.
+     */
+    static boolean isClientRoute(String path) {
+        if (path.isEmpty() || path.charAt(0) != '/' || SERVER_PATHS.matches(path)) {
+            return false;
+        }
+        for (int i = 1; i < path.length(); i++) {
+            switch (path.charAt(i)) {
+                case '.', '\n', '\r', '\u0085', '\u2028', '\u2029':
+                    return false;
+                default:
+            }
+        }
+        return true;
+    }
 }
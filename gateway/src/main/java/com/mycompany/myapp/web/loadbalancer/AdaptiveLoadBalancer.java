@@ -0,0 +1,102 @@
+package com.mycompany.myapp.web.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Load balancer picking two instances of a service at random, and choosing the one with the lower score in the
+ * {@link InstanceStatistics} (power of two choices), so a slow instance gets fewer requests without all the requests going
+ * to the fastest one. The ejected instances are left out, unless all the instances are ejected.
+ */
+public class AdaptiveLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveLoadBalancer.class);
+
+    private final String serviceId;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final InstanceStatistics statistics;
+
+    public AdaptiveLoadBalancer(
+        String serviceId,
+        ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+        InstanceStatistics statistics
+    ) {
+        this.serviceId = serviceId;
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier
+            .get(request)
+            .next()
+            .map(instances -> {
+                Response<ServiceInstance> response = choose(instances);
+                if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                    callback.selectedServiceInstance(response.getServer());
+                }
+                return response;
+            });
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            LOG.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        statistics.retain(serviceId, instances);
+        List<ServiceInstance> candidates = withoutEjected(instances);
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        // a second index among the others
+        int second = (first + 1 + random.nextInt(candidates.size() - 1)) % candidates.size();
+        ServiceInstance firstInstance = candidates.get(first);
+        ServiceInstance secondInstance = candidates.get(second);
+        return new DefaultResponse(
+            statistics.score(secondInstance) < statistics.score(firstInstance) ? secondInstance : firstInstance
+        );
+    }
+
+    private List<ServiceInstance> withoutEjected(List<ServiceInstance> instances) {
+        List<ServiceInstance> available = null;
+        for (int i = 0; i < instances.size(); i++) {
+            ServiceInstance instance = instances.get(i);
+            if (statistics.isEjected(instance)) {
+                if (available == null) {
+                    available = new ArrayList<>(instances.subList(0, i));
+                }
+            } else if (available != null) {
+                available.add(instance);
+            }
+        }
+        if (available == null) {
+            return instances;
+        }
+        if (available.isEmpty()) {
+            LOG.warn("All the instances of service {} are ejected, routing to all of them", serviceId);
+            return instances;
+        }
+        return available;
+    }
+}
@@ -0,0 +1,298 @@
+package com.mycompany.myapp.web.loadbalancer;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+/**
+ * Statistics of the service instances the requests are routed to, from which the {@link AdaptiveLoadBalancer} scores them.
+ * <p>
+ * The latency of an instance is a moving average of its response times which forgets them over
+ * {@code application.load-balancer.decay-time}, but jumps at once to a slower response (peak EWMA), so a pausing instance is
+ * avoided right away and gets its share back gradually. It decays when it is read too, so an instance which got no request
+ * since a slow response is tried again. A failed request counts as a response of at least
+ * {@code application.load-balancer.failure-penalty}, so an instance which fails fast is avoided rather than preferred. The
+ * score of an instance is its latency times its number of requests in flight plus one, the lower the better. An instance
+ * whose error rate, a moving average over about the last ten requests, reaches
+ * {@code application.load-balancer.error-rate-threshold} after {@code application.load-balancer.minimum-requests} is ejected
+ * for {@code application.load-balancer.ejection-time}.
+ * <p>
+ * The score, latency, requests in flight and ejection of each instance are published in the {@value #SCORE_METER_NAME},
+ * {@value #LATENCY_METER_NAME}, {@value #IN_FLIGHT_METER_NAME} and {@value #EJECTED_METER_NAME} gauges, tagged by service and
+ * instance, until the instance leaves the service registry.
+ */
+@Component
+public class InstanceStatistics {
+
+    public static final String SCORE_METER_NAME = "gateway.load-balancer.score";
+
+    public static final String LATENCY_METER_NAME = "gateway.load-balancer.latency";
+
+    public static final String IN_FLIGHT_METER_NAME = "gateway.load-balancer.in-flight";
+
+    public static final String EJECTED_METER_NAME = "gateway.load-balancer.ejected";
+
+    /**
+     * Weight of a request in the error rate, so the rate covers about the last ten requests.
+     */
+    private static final double ERROR_WEIGHT = 0.1;
+
+    /**
+     * Score of an instance with requests in flight but no response yet, so it is not sent more until its latency is known.
+     */
+    private static final double UNKNOWN_LATENCY_PENALTY = Long.MAX_VALUE >> 16;
+
+    private final Map<String, Map<String, Statistics>> services = new ConcurrentHashMap<>();
+
+    /**
+     * Last instance list of each service, so the instances which left it are forgotten only when it changes.
+     */
+    private final Map<String, List<ServiceInstance>> registered = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final double decayNanos;
+
+    private final double errorRateThreshold;
+
+    private final int minimumRequests;
+
+    private final long ejectionNanos;
+
+    private final long failurePenaltyNanos;
+
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public InstanceStatistics(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(applicationProperties, meterRegistry, System::nanoTime);
+    }
+
+    InstanceStatistics(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        ApplicationProperties.LoadBalancer properties = applicationProperties.getLoadBalancer();
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = properties.getDecayTime().toNanos();
+        this.errorRateThreshold = properties.getErrorRateThreshold();
+        this.minimumRequests = properties.getMinimumRequests();
+        this.ejectionNanos = properties.getEjectionTime().toNanos();
+        this.failurePenaltyNanos = properties.getFailurePenalty().toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Records a request routed to an instance.
+     * @param instance the instance.
+     */
+    public void started(ServiceInstance instance) {
+        statistics(instance).inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the end of a request routed to an instance.
+     * @param instance the instance.
+     * @param latencyNanos the time the instance took to answer.
+     * @param failed whether the request failed, or the instance answered with a server error.
+     */
+    public void completed(ServiceInstance instance, long latencyNanos, boolean failed) {
+        Statistics statistics = registeredStatistics(instance);
+        if (statistics != null) {
+            statistics.inFlight.decrementAndGet();
+            statistics.update(latencyNanos, failed, nanoTime.getAsLong());
+        }
+    }
+
+    /**
+     * Records the end of a request routed to an instance, which was cancelled before the instance answered.
+     * @param instance the instance.
+     */
+    public void cancelled(ServiceInstance instance) {
+        Statistics statistics = registeredStatistics(instance);
+        if (statistics != null) {
+            statistics.inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gives the score of an instance.
+     * @param instance the instance.
+     * @return the score, the lower the better.
+     */
+    public double score(ServiceInstance instance) {
+        return statistics(instance).score(nanoTime.getAsLong());
+    }
+
+    /**
+     * Tells whether an instance is ejected.
+     * @param instance the instance.
+     * @return whether the instance should get no request.
+     */
+    public boolean isEjected(ServiceInstance instance) {
+        return statistics(instance).isEjected(nanoTime.getAsLong());
+    }
+
+    /**
+     * Forgets the instances of a service which left the service registry.
+     * @param serviceId the id of the service.
+     * @param instances the current instances of the service.
+     */
+    public void retain(String serviceId, List<ServiceInstance> instances) {
+        String key = serviceKey(serviceId);
+        if (registered.put(key, instances) == instances) {
+            return;
+        }
+        Map<String, Statistics> statisticsById = services.get(key);
+        if (statisticsById == null) {
+            return;
+        }
+        Set<String> ids = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            ids.add(id(instance));
+        }
+        statisticsById
+            .entrySet()
+            .removeIf(entry -> {
+                if (ids.contains(entry.getKey())) {
+                    return false;
+                }
+                entry.getValue().meters.forEach(meterRegistry::remove);
+                return true;
+            });
+    }
+
+    private Statistics statistics(ServiceInstance instance) {
+        String serviceKey = serviceKey(instance.getServiceId());
+        return services
+            .computeIfAbsent(serviceKey, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(id(instance), id -> register(serviceKey, id));
+    }
+
+    /**
+     * Gives the statistics of an instance, unless it left the service registry since the request was routed to it.
+     */
+    private Statistics registeredStatistics(ServiceInstance instance) {
+        Map<String, Statistics> statisticsById = services.get(serviceKey(instance.getServiceId()));
+        return statisticsById != null ? statisticsById.get(id(instance)) : null;
+    }
+
+    private Statistics register(String serviceId, String id) {
+        Statistics statistics = new Statistics();
+        Tags tags = Tags.of("service", serviceId, "instance", id);
+        statistics.meters.add(
+            Gauge.builder(SCORE_METER_NAME, statistics, s -> s.score(nanoTime.getAsLong()))
+                .description("Score of the service instance, the lower the better")
+                .tags(tags)
+                .register(meterRegistry)
+        );
+        statistics.meters.add(
+            Gauge.builder(LATENCY_METER_NAME, statistics, s -> s.latencyNanos(nanoTime.getAsLong()) / 1_000_000_000)
+                .description("Moving average of the response times of the service instance")
+                .baseUnit("seconds")
+                .tags(tags)
+                .register(meterRegistry)
+        );
+        statistics.meters.add(
+            Gauge.builder(IN_FLIGHT_METER_NAME, statistics.inFlight, AtomicInteger::get)
+                .description("Number of requests in flight to the service instance")
+                .tags(tags)
+                .register(meterRegistry)
+        );
+        statistics.meters.add(
+            Gauge.builder(EJECTED_METER_NAME, statistics, s -> s.isEjected(nanoTime.getAsLong()) ? 1 : 0)
+                .description("Whether the service instance is ejected because of its error rate")
+                .tags(tags)
+                .register(meterRegistry)
+        );
+        return statistics;
+    }
+
+    /**
+     * The service registry may give the service ids in upper case, the routes give them in lower case.
+     */
+    private static String serviceKey(String serviceId) {
+        return serviceId.toLowerCase(Locale.ROOT);
+    }
+
+    private static String id(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private final class Statistics {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final List<Meter> meters = new ArrayList<>();
+
+        private volatile double latencyNanos;
+
+        private volatile boolean ejected;
+
+        private volatile long ejectedUntil;
+
+        private volatile long updatedAt;
+
+        private boolean sampled;
+
+        private double errorRate;
+
+        private int requests;
+
+        private synchronized void update(long responseNanos, boolean failed, long now) {
+            long sampleNanos = failed ? Math.max(responseNanos, failurePenaltyNanos) : responseNanos;
+            double weight = sampled ? weight(now) : 0;
+            double decayedNanos = this.latencyNanos * weight;
+            // a slower response is taken at once, a faster one gradually
+            this.latencyNanos = sampleNanos > decayedNanos ? sampleNanos : decayedNanos + sampleNanos * (1 - weight);
+            updatedAt = now;
+            sampled = true;
+            if (isEjected(now)) {
+                return;
+            }
+            errorRate += ERROR_WEIGHT * ((failed ? 1 : 0) - errorRate);
+            requests++;
+            if (requests >= minimumRequests && errorRate >= errorRateThreshold) {
+                ejectedUntil = now + ejectionNanos;
+                ejected = true;
+                // the instance starts afresh once back
+                errorRate = 0;
+                requests = 0;
+            }
+        }
+
+        private double score(long now) {
+            int requestsInFlight = Math.max(inFlight.get(), 0);
+            if (latencyNanos == 0 && requestsInFlight > 0) {
+                return UNKNOWN_LATENCY_PENALTY + requestsInFlight;
+            }
+            return latencyNanos(now) * (requestsInFlight + 1);
+        }
+
+        /**
+         * Gives the latency decayed toward zero since the last response, as if the time without response was a fast one.
+         */
+        private double latencyNanos(long now) {
+            return latencyNanos * weight(now);
+        }
+
+        private double weight(long now) {
+            return Math.exp(-Math.max(now - updatedAt, 0) / decayNanos);
+        }
+
+        private boolean isEjected(long now) {
+            return ejected && now - ejectedUntil < 0;
+        }
+    }
+}
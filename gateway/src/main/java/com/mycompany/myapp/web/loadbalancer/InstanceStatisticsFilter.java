@@ -0,0 +1,59 @@
+package com.mycompany.myapp.web.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records the requests routed to the service instances in the {@link InstanceStatistics}: their number in flight, the time
+ * the instances take to answer them, and their failures.
+ * <p>
+ * It runs right after the {@link ReactiveLoadBalancerClientFilter} which picks the instance, and measures the time until the
+ * response headers are received, the body being written afterwards. Unlike a load balancer lifecycle, it also sees the
+ * requests cancelled by the clients, which would otherwise stay in flight.
+ */
+@Component
+public class InstanceStatisticsFilter implements GlobalFilter, Ordered {
+
+    private final InstanceStatistics statistics;
+
+    public InstanceStatisticsFilter(InstanceStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> response = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (response == null || !response.hasServer()) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance instance = response.getServer();
+        statistics.started(instance);
+        long start = System.nanoTime();
+        return chain
+            .filter(exchange)
+            .doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    statistics.cancelled(instance);
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                statistics.completed(instance, System.nanoTime() - start, failed);
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
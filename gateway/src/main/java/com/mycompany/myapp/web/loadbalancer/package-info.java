@@ -0,0 +1,4 @@
+/**
+ * Load balancing of the requests routed to the service instances.
+ */
+package com.mycompany.myapp.web.loadbalancer;
@@ -2,6 +2,8 @@ package com.mycompany.myapp.web.rest;
 
 import com.mycompany.myapp.domain.Authority;
 import com.mycompany.myapp.repository.AuthorityRepository;
+import com.mycompany.myapp.service.AuthorityRegistry;
+import com.mycompany.myapp.service.TransactionCallbacks;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import java.net.URI;
@@ -37,8 +39,11 @@ public class AuthorityResource {
 
     private final AuthorityRepository authorityRepository;
 
-    public AuthorityResource(AuthorityRepository authorityRepository) {
+    private final AuthorityRegistry authorityRegistry;
+
+    public AuthorityResource(AuthorityRepository authorityRepository, AuthorityRegistry authorityRegistry) {
         this.authorityRepository = authorityRepository;
+        this.authorityRegistry = authorityRegistry;
     }
 
     /**
@@ -60,6 +65,8 @@ public class AuthorityResource {
                 }
                 return authorityRepository
                     .save(authority)
+                    // the registry is not changed by a rolled back creation
+                    .flatMap(result -> TransactionCallbacks.afterCommit(() -> authorityRegistry.put(result.getName())).thenReturn(result))
                     .map(result -> {
                         try {
                             return ResponseEntity.created(new URI("/api/authorities/" + result.getName()))
@@ -121,6 +128,7 @@ public class AuthorityResource {
         LOG.debug("REST request to delete Authority : {}", id);
         return authorityRepository
             .deleteById(id)
+            .then(TransactionCallbacks.afterCommit(() -> authorityRegistry.remove(id)))
             .then(
                 Mono.just(
                     ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id)).build()
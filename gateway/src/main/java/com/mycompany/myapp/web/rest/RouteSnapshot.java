@@ -0,0 +1,121 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.web.rest.vm.RouteVM;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Snapshot of the routes managed by the Gateway and of their service instances, as exposed by {@link GatewayResource}.
+ * <p>
+ * The snapshot is an immutable list of {@link RouteVM}, built on the first read and rebuilt once the routes are
+ * refreshed ({@link RefreshRoutesResultEvent}) or the service registry is fetched ({@link HeartbeatEvent}), so reading
+ * it neither subscribes to the routes nor queries the {@link DiscoveryClient}.
+ */
+@Component
+public class RouteSnapshot {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RouteSnapshot.class);
+
+    private final RouteLocator routeLocator;
+
+    private final DiscoveryClient discoveryClient;
+
+    private final String appName;
+
+    /**
+     * Where the snapshot is built, as the {@link DiscoveryClient} API is blocking.
+     */
+    private final Scheduler scheduler;
+
+    private final AtomicReference<Mono<List<RouteVM>>> snapshot;
+
+    /**
+     * Incremented on each refresh, so a snapshot is not replaced by an older one which took longer to build.
+     */
+    private final AtomicLong refreshes = new AtomicLong();
+
+    @Autowired
+    public RouteSnapshot(RouteLocator routeLocator, DiscoveryClient discoveryClient, @Value("${spring.application.name}") String appName) {
+        this(routeLocator, discoveryClient, appName, Schedulers.boundedElastic());
+    }
+
+    RouteSnapshot(RouteLocator routeLocator, DiscoveryClient discoveryClient, String appName, Scheduler scheduler) {
+        this.routeLocator = routeLocator;
+        this.discoveryClient = discoveryClient;
+        this.appName = appName;
+        this.scheduler = scheduler;
+        // keep the first snapshot, but build it again on the next read if it failed
+        Mono<List<RouteVM>> firstSnapshot = build().cache(
+            routes -> Duration.ofMillis(Long.MAX_VALUE),
+            e -> Duration.ZERO,
+            () -> Duration.ZERO
+        );
+        this.snapshot = new AtomicReference<>(firstSnapshot);
+    }
+
+    public Mono<List<RouteVM>> getRoutes() {
+        return snapshot.get();
+    }
+
+    @EventListener({ RefreshRoutesResultEvent.class, HeartbeatEvent.class })
+    public void refresh() {
+        long refresh = refreshes.incrementAndGet();
+        build().subscribe(
+            routes -> {
+                if (refreshes.get() == refresh) {
+                    snapshot.set(Mono.just(routes));
+                }
+            },
+            e -> LOG.warn("Could not refresh the routes snapshot: {}", e.getMessage())
+        );
+    }
+
+    private Mono<List<RouteVM>> build() {
+        return routeLocator
+            .getRoutes()
+            .filter(route -> !serviceId(route).equalsIgnoreCase(appName)) // Exclude gateway app from routes
+            .collectList()
+            .publishOn(scheduler)
+            .map(routes -> routes.stream().map(this::toRouteVM).toList());
+    }
+
+    private RouteVM toRouteVM(Route route) {
+        RouteVM routeVM = new RouteVM();
+        routeVM.setPath(path(route));
+        String serviceId = serviceId(route);
+        routeVM.setServiceId(serviceId);
+        routeVM.setServiceInstances(List.copyOf(discoveryClient.getInstances(serviceId)));
+        return routeVM;
+    }
+
+    /**
+     * Makes Gateway routes look like Zuul's: the {@code Paths: [/services/car/**], match trailing slash: true} route
+     * predicate gives the {@code /services/car/**} path.
+     */
+    private static String path(Route route) {
+        String predicate = route.getPredicate().toString();
+        int start = predicate.indexOf('[');
+        int end = predicate.indexOf(']', start + 1);
+        return start >= 0 && end > start ? predicate.substring(start + 1, end) : predicate;
+    }
+
+    private static String serviceId(Route route) {
+        return route.getId().substring(route.getId().indexOf('_') + 1).toLowerCase();
+    }
+}
@@ -5,8 +5,11 @@ import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.service.MailService;
+import com.mycompany.myapp.service.UserImportService;
 import com.mycompany.myapp.service.UserService;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
+import com.mycompany.myapp.service.dto.UserImportProgressDTO;
+import com.mycompany.myapp.service.mapper.UserCsvMapper;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import com.mycompany.myapp.web.rest.errors.EmailAlreadyUsedException;
 import com.mycompany.myapp.web.rest.errors.LoginAlreadyUsedException;
@@ -25,6 +28,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -80,6 +84,8 @@ public class UserResource {
         )
     );
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private static final Logger LOG = LoggerFactory.getLogger(UserResource.class);
 
     @Value("${jhipster.clientApp.name}")
@@ -91,10 +97,22 @@ public class UserResource {
 
     private final MailService mailService;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    private final UserImportService userImportService;
+
+    private final UserCsvMapper userCsvMapper;
+
+    public UserResource(
+        UserService userService,
+        UserRepository userRepository,
+        MailService mailService,
+        UserImportService userImportService,
+        UserCsvMapper userCsvMapper
+    ) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.mailService = mailService;
+        this.userImportService = userImportService;
+        this.userCsvMapper = userCsvMapper;
     }
 
     /**
@@ -145,6 +163,38 @@ public class UserResource {
             });
     }
 
+    /**
+     * {@code POST  /admin/users/bulk} : Imports users, given as newline delimited JSON.
+     * <p>
+     * The users are created like by {@link #createUser(AdminUserDTO)}, by chunks each written in its own transaction. The
+     * invalid users, or whose login or email is already used, are skipped.
+     *
+     * @param userDTOs the users to create.
+     * @return the {@link Flux} of the progress of the import, one element per chunk, as newline delimited JSON.
+     */
+    @PostMapping(value = "/users/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Flux<UserImportProgressDTO> importUsers(@RequestBody Flux<AdminUserDTO> userDTOs) {
+        LOG.debug("REST request to import Users");
+        return userImportService.importUsers(userDTOs);
+    }
+
+    /**
+     * {@code POST  /admin/users/bulk} : Imports users, given as CSV with a header line, see {@link UserCsvMapper}.
+     *
+     * @param lines the lines of the CSV document.
+     * @return the {@link Flux} of the progress of the import, one element per chunk, as newline delimited JSON.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the header names an unknown column.
+     */
+    @PostMapping(value = "/users/bulk", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Flux<UserImportProgressDTO> importUsersFromCsv(@RequestBody Flux<String> lines) {
+        LOG.debug("REST request to import Users from CSV");
+        return userImportService
+            .importUsers(userCsvMapper.csvLinesToAdminUserDTOs(lines))
+            .onErrorMap(IllegalArgumentException.class, e -> new BadRequestAlertException(e.getMessage(), "userManagement", "csvinvalid"));
+    }
+
     /**
      * {@code PUT /admin/users} : Updates an existing User.
      *
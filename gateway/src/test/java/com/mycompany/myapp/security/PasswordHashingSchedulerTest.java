@@ -0,0 +1,70 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link PasswordHashingScheduler}.
+ */
+class PasswordHashingSchedulerTest {
+
+    private MeterRegistry meterRegistry;
+
+    private PasswordHashingScheduler passwordHashingScheduler;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPasswordHashing().setThreads(1);
+        applicationProperties.getPasswordHashing().setQueueCapacity(1);
+        passwordHashingScheduler = new PasswordHashingScheduler(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingScheduler.destroy();
+    }
+
+    @Test
+    void rejectsTheTasksWhenTheQueueIsFull() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        Mono<Boolean> blocking = Mono.fromCallable(() -> {
+            running.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        blocking.subscribeOn(passwordHashingScheduler.getScheduler()).subscribe();
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        Mono.just("queued").subscribeOn(passwordHashingScheduler.getScheduler()).subscribe();
+
+        assertThatThrownBy(() -> Mono.just("rejected").subscribeOn(passwordHashingScheduler.getScheduler()).block(Duration.ofSeconds(5)))
+            .isInstanceOf(RejectedExecutionException.class);
+
+        assertThat(meterRegistry.get(PasswordHashingScheduler.REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", PasswordHashingScheduler.NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void runsTheTasksOnItsOwnThreads() {
+        String threadName = Mono.fromCallable(() -> Thread.currentThread().getName())
+            .subscribeOn(passwordHashingScheduler.getScheduler())
+            .block(Duration.ofSeconds(5));
+
+        assertThat(threadName).startsWith(PasswordHashingScheduler.NAME);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.security.DomainUserDetailsService.UserWithId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link UserDetailsCache}.
+ */
+class UserDetailsCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void readsThroughTheCache() {
+        UserDetailsCache cache = new UserDetailsCache(new ApplicationProperties(), meterRegistry);
+
+        assertThat(cache.get("user", () -> load(1L)).block().getId()).isEqualTo(1L);
+        assertThat(cache.get("user", () -> load(1L)).block().getId()).isEqualTo(1L);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(
+            meterRegistry.get("cache.gets").tag("cache", UserDetailsCache.CACHE_NAME).tag("result", "hit").functionCounter().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void returnsCopiesOfTheCachedUsers() {
+        UserDetailsCache cache = new UserDetailsCache(new ApplicationProperties(), meterRegistry);
+
+        cache.get("user", () -> load(1L)).block().eraseCredentials();
+
+        assertThat(cache.get("user", () -> load(1L)).block().getPassword()).isEqualTo("password");
+    }
+
+    @Test
+    void evictsAUserUnderAllItsKeys() {
+        UserDetailsCache cache = new UserDetailsCache(new ApplicationProperties(), meterRegistry);
+        cache.get("user", () -> load(1L)).block();
+        cache.get("user@localhost", () -> load(1L)).block();
+        cache.get("other", () -> load(2L)).block();
+
+        cache.evict(1L);
+        cache.get("user", () -> load(1L)).block();
+        cache.get("user@localhost", () -> load(1L)).block();
+        cache.get("other", () -> load(2L)).block();
+
+        assertThat(loads.get()).isEqualTo(5);
+    }
+
+    @Test
+    void doesNotCacheAUserLoadedBeforeAnEviction() {
+        UserDetailsCache cache = new UserDetailsCache(new ApplicationProperties(), meterRegistry);
+
+        cache.get("user", () -> load(1L).doOnNext(user -> cache.evict(1L))).block();
+        cache.get("user", () -> load(1L)).block();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void loadsTheUsersWhenDisabled() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getUserDetailsCache().setEnabled(false);
+        UserDetailsCache cache = new UserDetailsCache(applicationProperties, meterRegistry);
+
+        cache.get("user", () -> load(1L)).block();
+        cache.get("user", () -> load(1L)).block();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private Mono<UserWithId> load(Long id) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return new UserWithId("user-" + id, "password", List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER)), id);
+        });
+    }
+}
@@ -4,6 +4,7 @@ import com.mycompany.myapp.config.SecurityConfiguration;
 import com.mycompany.myapp.config.SecurityJwtConfiguration;
 import com.mycompany.myapp.config.WebConfigurer;
 import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.security.PasswordHashingScheduler;
 import com.mycompany.myapp.web.rest.AuthenticateController;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -24,6 +25,8 @@ import tech.jhipster.config.JHipsterProperties;
         SecurityJwtConfiguration.class,
         SecurityMetersService.class,
         JwtAuthenticationTestUtils.class,
+        VerifiedJwtCache.class,
+        PasswordHashingScheduler.class,
     }
 )
 @WebFluxTest(
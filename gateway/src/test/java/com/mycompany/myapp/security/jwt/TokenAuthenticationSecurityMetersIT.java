@@ -59,6 +59,17 @@ class TokenAuthenticationSecurityMetersIT {
         );
     }
 
+    @Test
+    void testTokenUnsupportedCount() throws Exception {
+        var count = meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "unsupported").counter().count();
+
+        tryToAuthenticate(createTokenWithUnsupportedAlgorithm(jwtKey));
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "unsupported").counter().count()).isEqualTo(
+            count + 1
+        );
+    }
+
     @Test
     void testTokenMalformedCount() throws Exception {
         var count = meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count();
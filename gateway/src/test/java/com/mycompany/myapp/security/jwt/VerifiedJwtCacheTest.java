@@ -0,0 +1,116 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link VerifiedJwtCache}.
+ */
+class VerifiedJwtCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private MeterRegistry meterRegistry;
+
+    private AtomicInteger verifications;
+
+    private Instant expiresAt;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        verifications = new AtomicInteger();
+        expiresAt = NOW.plusSeconds(60);
+    }
+
+    @Test
+    void verifiesATokenOnce() {
+        VerifiedJwtCache cache = newCache(new ApplicationProperties());
+
+        assertThat(cache.decode("token", this::verify).block().getSubject()).isEqualTo("token");
+        assertThat(cache.decode("token", this::verify).block().getSubject()).isEqualTo("token");
+
+        assertThat(verifications.get()).isEqualTo(1);
+        assertThat(
+            meterRegistry.get("cache.gets").tag("cache", VerifiedJwtCache.CACHE_NAME).tag("result", "hit").functionCounter().count()
+        ).isEqualTo(1);
+        assertThat(
+            meterRegistry.get("cache.gets").tag("cache", VerifiedJwtCache.CACHE_NAME).tag("result", "miss").functionCounter().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void keysTheTokensByValue() {
+        VerifiedJwtCache cache = newCache(new ApplicationProperties());
+
+        assertThat(cache.decode("token", this::verify).block().getSubject()).isEqualTo("token");
+        assertThat(cache.decode("other-token", this::verify).block().getSubject()).isEqualTo("other-token");
+
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheRejectedTokens() {
+        VerifiedJwtCache cache = newCache(new ApplicationProperties());
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() ->
+                cache
+                    .decode("token", token -> {
+                        verifications.incrementAndGet();
+                        return Mono.error(new BadJwtException("Invalid token"));
+                    })
+                    .block()
+            ).isInstanceOf(BadJwtException.class);
+        }
+
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheExpiredTokens() {
+        VerifiedJwtCache cache = newCache(new ApplicationProperties());
+        expiresAt = NOW;
+
+        cache.decode("token", this::verify).block();
+        cache.decode("token", this::verify).block();
+
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    @Test
+    void verifiesTheTokensAgainWhenDisabled() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getJwtCache().setEnabled(false);
+        VerifiedJwtCache cache = newCache(applicationProperties);
+
+        cache.decode("token", this::verify).block();
+        cache.decode("token", this::verify).block();
+
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    private VerifiedJwtCache newCache(ApplicationProperties applicationProperties) {
+        applicationProperties.getJwtCache().setMaximumTimeToLive(Duration.ofMinutes(5));
+        return new VerifiedJwtCache(applicationProperties, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private Mono<Jwt> verify(String token) {
+        verifications.incrementAndGet();
+        return Mono.just(Jwt.withTokenValue(token).header("alg", "HS512").subject(token).expiresAt(expiresAt).build());
+    }
+}
@@ -0,0 +1,82 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.repository.AuthorityRepository;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the {@link AuthorityRegistry}.
+ */
+class AuthorityRegistryTest {
+
+    private AuthorityRepository authorityRepository;
+
+    private AuthorityRegistry authorityRegistry;
+
+    @BeforeEach
+    void setUp() {
+        authorityRepository = mock(AuthorityRepository.class);
+        when(authorityRepository.findAll()).thenReturn(
+            Flux.just(new Authority().name(AuthoritiesConstants.USER), new Authority().name(AuthoritiesConstants.ADMIN))
+        );
+        authorityRegistry = new AuthorityRegistry(authorityRepository);
+    }
+
+    @Test
+    void readsTheAuthoritiesOnce() {
+        assertThat(authorityRegistry.getAuthorityNames().collectList().block()).containsExactly(
+            AuthoritiesConstants.ADMIN,
+            AuthoritiesConstants.USER
+        );
+        assertThat(authorityRegistry.getAuthorityNames().collectList().block()).hasSize(2);
+
+        verify(authorityRepository, times(1)).findAll();
+    }
+
+    @Test
+    void resolvesTheKnownAuthorities() {
+        Set<Authority> authorities = authorityRegistry.resolve(List.of(AuthoritiesConstants.USER, "ROLE_UNKNOWN")).block();
+
+        assertThat(authorities).containsExactly(new Authority().name(AuthoritiesConstants.USER));
+        assertThat(authorityRegistry.resolve(null).block()).isEmpty();
+    }
+
+    @Test
+    void replacesTheAuthoritiesOnChange() {
+        authorityRegistry.load();
+
+        authorityRegistry.put("ROLE_MANAGER");
+        authorityRegistry.remove(AuthoritiesConstants.ADMIN);
+
+        assertThat(authorityRegistry.getAuthorityNames().collectList().block()).containsExactly("ROLE_MANAGER", AuthoritiesConstants.USER);
+        verify(authorityRepository, times(1)).findAll();
+    }
+
+    @Test
+    void discardsALoadWhichRacedWithAChange() {
+        Sinks.Many<Authority> slowAuthorities = Sinks.many().replay().all();
+        when(authorityRepository.findAll()).thenReturn(slowAuthorities.asFlux());
+
+        authorityRegistry.load();
+        authorityRegistry.put("ROLE_MANAGER");
+        slowAuthorities.tryEmitNext(new Authority().name(AuthoritiesConstants.USER));
+        slowAuthorities.tryEmitComplete();
+
+        when(authorityRepository.findAll()).thenReturn(
+            Flux.just(new Authority().name(AuthoritiesConstants.USER), new Authority().name("ROLE_MANAGER"))
+        );
+        assertThat(authorityRegistry.getAuthorityNames().collectList().block()).containsExactly("ROLE_MANAGER", AuthoritiesConstants.USER);
+    }
+}
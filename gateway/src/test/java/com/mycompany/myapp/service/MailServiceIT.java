@@ -43,6 +43,7 @@ class MailServiceIT {
     };
     private static final Pattern PATTERN_LOCALE_3 = Pattern.compile("([a-z]{2})-([a-zA-Z]{4})-([a-z]{2})");
     private static final Pattern PATTERN_LOCALE_2 = Pattern.compile("([a-z]{2})-([a-z]{2})");
+    private static final long SEND_TIMEOUT = 5000;
 
     @Autowired
     private JHipsterProperties jHipsterProperties;
@@ -51,22 +52,21 @@ class MailServiceIT {
     private JavaMailSender javaMailSender;
 
     @Captor
-    private ArgumentCaptor<MimeMessage> messageCaptor;
+    private ArgumentCaptor<MimeMessage[]> messagesCaptor;
 
     @Autowired
     private MailService mailService;
 
     @BeforeEach
     void setup() {
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+        doNothing().when(javaMailSender).send(any(MimeMessage[].class));
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
     }
 
     @Test
     void testSendEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sentMessage();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -78,8 +78,7 @@ class MailServiceIT {
     @Test
     void testSendHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sentMessage();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -91,8 +90,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sentMessage();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -108,8 +106,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sentMessage();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -129,8 +126,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sentMessage();
         assertThat(message.getSubject()).isEqualTo("test title");
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -145,8 +141,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sentMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -160,8 +155,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sentMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -175,8 +169,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sentMessage();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -185,7 +178,7 @@ class MailServiceIT {
 
     @Test
     void testSendEmailWithException() {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage[].class));
         try {
             mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
         } catch (Exception e) {
@@ -198,11 +191,12 @@ class MailServiceIT {
         User user = new User();
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
-        for (String langKey : languages) {
+        for (int i = 0; i < languages.length; i++) {
+            String langKey = languages[i];
             user.setLangKey(langKey);
             mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-            verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
-            MimeMessage message = messageCaptor.getValue();
+            verify(javaMailSender, timeout(SEND_TIMEOUT).times(i + 1)).send(messagesCaptor.capture());
+            MimeMessage message = messagesCaptor.getValue()[0];
 
             String propertyFilePath = "i18n/messages_" + getMessageSourceSuffixForLanguage(langKey) + ".properties";
             URL resource = this.getClass().getClassLoader().getResource(propertyFilePath);
@@ -218,6 +212,14 @@ class MailServiceIT {
         }
     }
 
+    /**
+     * Waits for the email sent by the mail queue.
+     */
+    private MimeMessage sentMessage() {
+        verify(javaMailSender, timeout(SEND_TIMEOUT)).send(messagesCaptor.capture());
+        return messagesCaptor.getValue()[0];
+    }
+
     /**
      * Convert a lang key to the Java locale.
      */
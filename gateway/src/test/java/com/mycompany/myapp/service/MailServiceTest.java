@@ -0,0 +1,257 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the queueing, batching and retries of the {@link MailService}, sending to an in-process SMTP server.
+ */
+class MailServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private MeterRegistry meterRegistry;
+
+    private FlakyMailSender mailSender;
+
+    private ApplicationProperties applicationProperties;
+
+    private MailService mailService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        mailSender = new FlakyMailSender();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().setBatchSize(3);
+        applicationProperties.getMail().setMaxDelay(Duration.ofSeconds(10));
+        applicationProperties.getMail().setMinBackoff(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailService.destroy();
+    }
+
+    private void startMailService() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("test@localhost");
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        mailService = new MailService(
+            jHipsterProperties,
+            mailSender,
+            new MailTemplateRenderer(messageSource, applicationProperties),
+            applicationProperties,
+            meterRegistry
+        );
+        mailService.afterPropertiesSet();
+    }
+
+    @Test
+    void sendsTheQueuedEmailsInBatches() throws InterruptedException {
+        startMailService();
+
+        mailService.sendEmail("john1@localhost", "subject", "content", false, false);
+        mailService.sendEmail("john2@localhost", "subject", "content", false, false);
+        mailService.sendEmail("john3@localhost", "subject", "content", false, false);
+        awaitQueueDrained();
+
+        assertThat(recipients()).containsExactly("john1@localhost", "john2@localhost", "john3@localhost");
+        assertThat(sessions()).isEqualTo(1);
+        assertThat(messages("sent")).isEqualTo(3);
+    }
+
+    @Test
+    void sendsAnIncompleteBatchAfterTheMaxDelay() throws InterruptedException {
+        applicationProperties.getMail().setMaxDelay(Duration.ofMillis(10));
+        startMailService();
+
+        mailService.sendEmail("john@localhost", "subject", "content", false, false);
+        awaitQueueDrained();
+
+        assertThat(recipients()).containsExactly("john@localhost");
+        assertThat(messages("sent")).isEqualTo(1);
+    }
+
+    @Test
+    void sendsTheQueuedEmailsOnShutdown() {
+        startMailService();
+
+        mailService.sendEmail("john@localhost", "subject", "content", false, false);
+        mailService.destroy();
+
+        assertThat(recipients()).containsExactly("john@localhost");
+        assertThat(messages("sent")).isEqualTo(1);
+    }
+
+    @Test
+    void rendersTheUserAsItWasWhenTheEmailWasQueued() throws Exception {
+        startMailService();
+        User user = new User();
+        user.setLogin("john");
+        user.setEmail("john@localhost");
+        user.setLangKey("en");
+        user.setActivationKey("queued-key");
+
+        mailService.sendActivationEmail(user);
+        user.setEmail("jane@localhost");
+        user.setActivationKey("changed-key");
+        mailService.destroy();
+
+        assertThat(recipients()).containsExactly("john@localhost");
+        assertThat((String) greenMail.getReceivedMessages()[0].getContent()).contains("key=queued-key");
+    }
+
+    @Test
+    void retriesTheEmailsTheServerFailedToAccept() throws InterruptedException {
+        mailSender.failNextConnections(1);
+        startMailService();
+
+        mailService.sendEmail("john1@localhost", "subject", "content", false, false);
+        mailService.sendEmail("john2@localhost", "subject", "content", false, false);
+        mailService.sendEmail("john3@localhost", "subject", "content", false, false);
+        awaitQueueDrained();
+
+        assertThat(recipients()).containsExactly("john1@localhost", "john2@localhost", "john3@localhost");
+        assertThat(sessions()).isEqualTo(2);
+        assertThat(messages("sent")).isEqualTo(3);
+        assertThat(messages("failed")).isZero();
+    }
+
+    @Test
+    void dropsTheEmailsOnceTheRetriesAreExhausted() throws InterruptedException {
+        applicationProperties.getMail().setMaxRetries(1);
+        mailSender.failNextConnections(2);
+        startMailService();
+
+        mailService.sendEmail("john1@localhost", "subject", "content", false, false);
+        mailService.sendEmail("john2@localhost", "subject", "content", false, false);
+        mailService.sendEmail("john3@localhost", "subject", "content", false, false);
+        awaitQueueDrained();
+
+        assertThat(recipients()).isEmpty();
+        assertThat(sessions()).isEqualTo(2);
+        assertThat(messages("sent")).isZero();
+        assertThat(messages("failed")).isEqualTo(3);
+    }
+
+    @Test
+    void sendsTheNextBatchesWhileOneWaitsForItsRetry() throws InterruptedException {
+        applicationProperties.getMail().setMaxDelay(Duration.ofMillis(10));
+        applicationProperties.getMail().setMinBackoff(Duration.ofMinutes(1));
+        // the email waiting for its retry is not waited for on shutdown
+        applicationProperties.getMail().setShutdownTimeout(Duration.ZERO);
+        mailSender.failNextConnections(1);
+        startMailService();
+
+        mailService.sendEmail("john1@localhost", "subject", "content", false, false);
+        awaitSessions(1);
+        mailService.sendEmail("john2@localhost", "subject", "content", false, false);
+
+        assertThat(greenMail.waitForIncomingEmail(TIMEOUT_MILLIS, 1)).isTrue();
+        assertThat(recipients()).containsExactly("john2@localhost");
+        assertThat(messages("failed")).isZero();
+    }
+
+    @Test
+    void rejectsTheEmailsWhenTheQueueIsFull() throws InterruptedException {
+        applicationProperties.getMail().setQueueCapacity(1);
+        applicationProperties.getMail().setMaxDelay(Duration.ofMillis(10));
+        applicationProperties.getMail().setMinBackoff(Duration.ofMinutes(1));
+        // the email waiting for its retry is not waited for on shutdown
+        applicationProperties.getMail().setShutdownTimeout(Duration.ZERO);
+        mailSender.failNextConnections(1);
+        startMailService();
+
+        mailService.sendEmail("john1@localhost", "subject", "content", false, false);
+        awaitSessions(1);
+        mailService.sendEmail("john2@localhost", "subject", "content", false, false);
+
+        assertThat(meterRegistry.get(MailService.QUEUED_METER_NAME).gauge().value()).isEqualTo(1);
+        assertThat(messages("rejected")).isEqualTo(1);
+    }
+
+    private double messages(String result) {
+        return meterRegistry.get(MailService.MESSAGES_METER_NAME).tag("result", result).counter().count();
+    }
+
+    private long sessions() {
+        return meterRegistry.get(MailService.SEND_METER_NAME).timer().count();
+    }
+
+    private static List<String> recipients() {
+        return Arrays.stream(greenMail.getReceivedMessages()).map(MailServiceTest::recipient).toList();
+    }
+
+    private static String recipient(MimeMessage message) {
+        try {
+            return message.getRecipients(Message.RecipientType.TO)[0].toString();
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitQueueDrained() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (meterRegistry.get(MailService.QUEUED_METER_NAME).gauge().value() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get(MailService.QUEUED_METER_NAME).gauge().value()).isZero();
+    }
+
+    private void awaitSessions(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (sessions() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(sessions()).isEqualTo(count);
+    }
+
+    /**
+     * {@link JavaMailSenderImpl} failing to connect to the SMTP server the next given number of times.
+     */
+    private static class FlakyMailSender extends JavaMailSenderImpl {
+
+        private final AtomicInteger failingConnections = new AtomicInteger();
+
+        void failNextConnections(int count) {
+            failingConnections.set(count);
+        }
+
+        @Override
+        protected Transport connectTransport() throws MessagingException {
+            if (failingConnections.getAndDecrement() > 0) {
+                throw new MessagingException("Connection refused");
+            }
+            return super.connectTransport();
+        }
+    }
+}
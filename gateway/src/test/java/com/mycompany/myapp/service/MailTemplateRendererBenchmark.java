@@ -0,0 +1,116 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.User;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+/**
+ * Measures the CPU time spent rendering an activation email, template and subject, with the template engine previously
+ * used by the {@link MailService}, and with the {@link MailTemplateRenderer} with and without its caches.
+ * <p>
+ * It is not part of the build, run it with {@code ./mvnw test -Dtest=MailTemplateRendererBenchmark}.
+ */
+class MailTemplateRendererBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailTemplateRendererBenchmark.class);
+
+    private static final String TEMPLATE_NAME = "mail/activationEmail";
+
+    private static final String TITLE_KEY = "email.activation.title";
+
+    private static final int WARM_UP_ITERATIONS = 5_000;
+
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void renderTheActivationEmail() {
+        MessageSource messageSource = messageSource();
+        Map<String, Object> variables = variables();
+
+        SpringTemplateEngine templateEngine = sharedTemplateEngine(messageSource);
+        long sharedEngineNanos = measure(() -> {
+            Context context = new Context(Locale.ENGLISH, variables);
+            return templateEngine.process(TEMPLATE_NAME, context) + messageSource.getMessage(TITLE_KEY, null, Locale.ENGLISH);
+        });
+        MailTemplateRenderer uncachedRenderer = mailTemplateRenderer(messageSource, 0);
+        long uncachedNanos = measure(() -> render(uncachedRenderer, variables));
+        MailTemplateRenderer cachedRenderer = mailTemplateRenderer(messageSource, 20);
+        long cachedNanos = measure(() -> render(cachedRenderer, variables));
+
+        LOG.info(
+            "CPU time per email: {} ns with the shared template engine, {} ns without cache, {} ns with the cached templates and subjects",
+            sharedEngineNanos,
+            uncachedNanos,
+            cachedNanos
+        );
+        assertThat(cachedNanos).isPositive();
+    }
+
+    private static String render(MailTemplateRenderer mailTemplateRenderer, Map<String, Object> variables) {
+        String content = mailTemplateRenderer.render(TEMPLATE_NAME, Locale.ENGLISH, variables);
+        return content + mailTemplateRenderer.getSubject(TITLE_KEY, Locale.ENGLISH);
+    }
+
+    private static long measure(Supplier<String> renderer) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            renderer.get();
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            renderer.get();
+        }
+        return (threads.getCurrentThreadCpuTime() - start) / ITERATIONS;
+    }
+
+    private static MessageSource messageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        return messageSource;
+    }
+
+    private static Map<String, Object> variables() {
+        User user = new User();
+        user.setLogin("john");
+        user.setActivationKey("12345678901234567890");
+        return Map.of("user", user, "baseUrl", "http://127.0.0.1:8080");
+    }
+
+    /**
+     * The template engine configured by Spring Boot with {@code spring.thymeleaf.cache: true}.
+     */
+    private static SpringTemplateEngine sharedTemplateEngine(MessageSource messageSource) {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        return templateEngine;
+    }
+
+    private static MailTemplateRenderer mailTemplateRenderer(MessageSource messageSource, int templateCacheSize) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().setTemplateCacheSize(templateCacheSize);
+        return new MailTemplateRenderer(messageSource, applicationProperties);
+    }
+}
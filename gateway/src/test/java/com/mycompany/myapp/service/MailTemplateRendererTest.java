@@ -0,0 +1,65 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.User;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+
+/**
+ * Test class for the {@link MailTemplateRenderer}.
+ */
+class MailTemplateRendererTest {
+
+    private StaticMessageSource messageSource;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    void setUp() {
+        messageSource = new StaticMessageSource();
+        messageSource.addMessage("email.test.title", Locale.ENGLISH, "test title");
+        messageSource.addMessage("email.test.title", Locale.FRENCH, "titre de test");
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    void rendersTheTemplateInEachLocale() {
+        MailTemplateRenderer mailTemplateRenderer = new MailTemplateRenderer(messageSource, applicationProperties);
+        User user = new User();
+        user.setLogin("john");
+        Map<String, Object> variables = Map.of("user", user, "baseUrl", "https://www.jhipster.tech");
+
+        String english = mailTemplateRenderer.render("mail/testEmail", Locale.ENGLISH, variables);
+        String french = mailTemplateRenderer.render("mail/testEmail", Locale.FRENCH, variables);
+
+        assertThat(english).isEqualToNormalizingNewlines("<html>test title, https://www.jhipster.tech, john</html>\n");
+        assertThat(french).isEqualToNormalizingNewlines("<html>titre de test, https://www.jhipster.tech, john</html>\n");
+    }
+
+    @Test
+    void resolvesTheSubjectOncePerLocale() {
+        MailTemplateRenderer mailTemplateRenderer = new MailTemplateRenderer(messageSource, applicationProperties);
+
+        assertThat(mailTemplateRenderer.getSubject("email.test.title", Locale.ENGLISH)).isEqualTo("test title");
+        assertThat(mailTemplateRenderer.getSubject("email.test.title", Locale.FRENCH)).isEqualTo("titre de test");
+        messageSource.addMessage("email.test.title", Locale.ENGLISH, "updated title");
+
+        assertThat(mailTemplateRenderer.getSubject("email.test.title", Locale.ENGLISH)).isEqualTo("test title");
+    }
+
+    @Test
+    void resolvesTheSubjectOnEachEmailWhenTheCacheIsDisabled() {
+        applicationProperties.getMail().setTemplateCacheSize(0);
+        MailTemplateRenderer mailTemplateRenderer = new MailTemplateRenderer(messageSource, applicationProperties);
+
+        assertThat(mailTemplateRenderer.getSubject("email.test.title", Locale.ENGLISH)).isEqualTo("test title");
+        messageSource.addMessage("email.test.title", Locale.ENGLISH, "updated title");
+
+        assertThat(mailTemplateRenderer.getSubject("email.test.title", Locale.ENGLISH)).isEqualTo("updated title");
+    }
+}
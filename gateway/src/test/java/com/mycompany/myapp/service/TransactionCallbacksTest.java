@@ -0,0 +1,82 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link TransactionCallbacks}.
+ */
+class TransactionCallbacksTest {
+
+    private final TransactionalOperator transactionalOperator = TransactionalOperator.create(new NoOpTransactionManager());
+
+    @Test
+    void runsTheActionAfterTheCommit() {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        Boolean ranBeforeCommit = transactionalOperator
+            .transactional(TransactionCallbacks.afterCommit(() -> ran.set(true)).then(Mono.fromSupplier(ran::get)))
+            .block();
+
+        assertThat(ranBeforeCommit).isFalse();
+        assertThat(ran).isTrue();
+    }
+
+    @Test
+    void doesNotRunTheActionOnRollback() {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        Mono<Void> failedWrite = TransactionCallbacks.afterCommit(() -> ran.set(true)).then(Mono.error(new IllegalStateException()));
+
+        assertThatThrownBy(() -> transactionalOperator.transactional(failedWrite).block()).isInstanceOf(IllegalStateException.class);
+        assertThat(ran).isFalse();
+    }
+
+    @Test
+    void runsTheActionAtOnceOutsideOfATransaction() {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        TransactionCallbacks.afterCommit(() -> ran.set(true)).block();
+
+        assertThat(ran).isTrue();
+    }
+
+    /**
+     * A transaction manager without resources, which only runs the transaction synchronizations.
+     */
+    private static final class NoOpTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(
+            TransactionSynchronizationManager synchronizationManager,
+            Object transaction,
+            TransactionDefinition definition
+        ) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
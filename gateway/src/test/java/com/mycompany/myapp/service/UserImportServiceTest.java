@@ -0,0 +1,157 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.security.PasswordHashingScheduler;
+import com.mycompany.myapp.service.dto.AdminUserDTO;
+import com.mycompany.myapp.service.dto.UserImportProgressDTO;
+import jakarta.validation.Validation;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Test class for the chunks and transactions of the {@link UserImportService}.
+ */
+class UserImportServiceTest {
+
+    private final Queue<String> events = new ConcurrentLinkedQueue<>();
+
+    private UserRepository userRepository;
+
+    private MailService mailService;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findAllByLoginIn(any())).thenReturn(Flux.empty());
+        when(userRepository.findAllByEmailIn(any())).thenReturn(Flux.empty());
+        AuthorityRegistry authorityRegistry = mock(AuthorityRegistry.class);
+        when(authorityRegistry.getAuthorityNames()).thenReturn(Flux.just(AuthoritiesConstants.USER));
+        PasswordHashingScheduler passwordHashingScheduler = mock(PasswordHashingScheduler.class);
+        when(passwordHashingScheduler.getScheduler()).thenReturn(Schedulers.immediate());
+        mailService = mock(MailService.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getUserImport().setChunkSize(2);
+        userImportService = new UserImportService(
+            userRepository,
+            authorityRegistry,
+            new RecordingPasswordEncoder(),
+            passwordHashingScheduler,
+            mailService,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            new RecordingTransactionManager(),
+            applicationProperties
+        );
+    }
+
+    @Test
+    void hashesThePasswordsBeforeTheTransaction() {
+        when(userRepository.insertAllWithAuthorities(anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+
+        userImportService.importUsers(Flux.just(user("john"), user("jane"))).blockLast();
+
+        assertThat(events).containsExactly("hash", "hash", "begin", "commit");
+    }
+
+    @Test
+    void reportsAChunkWhoseUserWasRegisteredMeanwhileAndGoesOn() {
+        when(userRepository.insertAllWithAuthorities(anyList()))
+            .thenReturn(Flux.error(new DuplicateKeyException("Duplicate entry 'john' for key 'ux_user_login'")))
+            .thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+
+        List<UserImportProgressDTO> progress = userImportService
+            .importUsers(Flux.just(user("john"), user("jane"), user("jim"), user("joe")))
+            .collectList()
+            .block();
+
+        assertThat(progress).hasSize(2);
+        assertThat(progress.get(0).getImported()).isZero();
+        assertThat(progress.get(0).getSkipped()).isEqualTo(2);
+        assertThat(progress.get(0).getErrors()).hasSize(1);
+        assertThat(progress.get(1).getImported()).isEqualTo(2);
+        assertThat(progress.get(1).getTotalImported()).isEqualTo(2);
+        assertThat(progress.get(1).getTotalSkipped()).isEqualTo(2);
+        assertThat(events).containsSubsequence("begin", "rollback", "begin", "commit");
+        verify(mailService, times(2)).sendCreationEmail(any(User.class));
+    }
+
+    private static AdminUserDTO user(String login) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(login);
+        userDTO.setEmail(login + "@localhost");
+        userDTO.setAuthorities(Set.of(AuthoritiesConstants.USER));
+        return userDTO;
+    }
+
+    /**
+     * A password encoder recording when it hashes a password.
+     */
+    private final class RecordingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            events.add("hash");
+            return "hash-" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+
+    /**
+     * A transaction manager without resources, recording when the transactions begin and end.
+     */
+    private final class RecordingTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(
+            TransactionSynchronizationManager synchronizationManager,
+            Object transaction,
+            TransactionDefinition definition
+        ) {
+            return Mono.fromRunnable(() -> events.add("begin"));
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.fromRunnable(() -> events.add("commit"));
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.fromRunnable(() -> events.add("rollback"));
+        }
+    }
+}
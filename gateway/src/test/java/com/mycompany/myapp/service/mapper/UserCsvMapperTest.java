@@ -0,0 +1,48 @@
+package com.mycompany.myapp.service.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.service.dto.AdminUserDTO;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Unit tests for {@link UserCsvMapper}.
+ */
+class UserCsvMapperTest {
+
+    private final UserCsvMapper userCsvMapper = new UserCsvMapper();
+
+    @Test
+    void csvLinesToAdminUserDTOsShouldMapTheColumnsOfTheHeader() {
+        List<AdminUserDTO> userDTOs = userCsvMapper
+            .csvLinesToAdminUserDTOs(
+                Flux.just("\uFEFFemail, login,lastName,authorities", "john@localhost,john,\"Doe, \"\"Jr\"\"\",ROLE_USER; ROLE_ADMIN", "", ",jane")
+            )
+            .collectList()
+            .block();
+
+        assertThat(userDTOs).hasSize(2);
+        assertThat(userDTOs.get(0).getLogin()).isEqualTo("john");
+        assertThat(userDTOs.get(0).getEmail()).isEqualTo("john@localhost");
+        assertThat(userDTOs.get(0).getLastName()).isEqualTo("Doe, \"Jr\"");
+        assertThat(userDTOs.get(0).getAuthorities()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(userDTOs.get(1).getLogin()).isEqualTo("jane");
+        assertThat(userDTOs.get(1).getEmail()).isNull();
+        assertThat(userDTOs.get(1).getAuthorities()).isNull();
+    }
+
+    @Test
+    void csvLinesToAdminUserDTOsShouldRejectUnknownColumns() {
+        Flux<AdminUserDTO> userDTOs = userCsvMapper.csvLinesToAdminUserDTOs(Flux.just("login,password", "john,secret"));
+
+        assertThatThrownBy(userDTOs::blockLast).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("password");
+    }
+
+    @Test
+    void csvLinesToAdminUserDTOsShouldMapAnEmptyDocumentToNoUsers() {
+        assertThat(userCsvMapper.csvLinesToAdminUserDTOs(Flux.empty()).collectList().block()).isEmpty();
+    }
+}
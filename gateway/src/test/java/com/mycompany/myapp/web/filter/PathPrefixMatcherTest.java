@@ -0,0 +1,64 @@
+package com.mycompany.myapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher.MatchResult;
+
+/**
+ * Test class for the {@link PathPrefixMatcher}.
+ */
+class PathPrefixMatcherTest {
+
+    @Test
+    void matchesThePathsStartingWithAPrefix() {
+        PathPrefixMatcher matcher = PathPrefixMatcher.of("/api", "/management", "/v3/api-docs");
+
+        assertThat(matcher.matches("/api")).isTrue();
+        assertThat(matcher.matches("/api/users")).isTrue();
+        assertThat(matcher.matches("/apidocs")).isTrue();
+        assertThat(matcher.matches("/v3/api-docs/car")).isTrue();
+        assertThat(matcher.matches("/ap")).isFalse();
+        assertThat(matcher.matches("/v3/api")).isFalse();
+        assertThat(matcher.matches("/admin/metrics")).isFalse();
+        assertThat(matcher.matches("")).isFalse();
+    }
+
+    @Test
+    void matchesTheSubPathsOfAnAnySubPathPattern() {
+        PathPrefixMatcher matcher = PathPrefixMatcher.of("/app/**", "/i18n/**");
+
+        assertThat(matcher.matches("/app")).isTrue();
+        assertThat(matcher.matches("/app/")).isTrue();
+        assertThat(matcher.matches("/app/main.js")).isTrue();
+        assertThat(matcher.matches("/i18n/en.json")).isTrue();
+        assertThat(matcher.matches("/application")).isFalse();
+        assertThat(matcher.matches("/ap")).isFalse();
+    }
+
+    @Test
+    void matchesTheExchangePath() {
+        PathPrefixMatcher matcher = PathPrefixMatcher.of("/content/**");
+
+        MatchResult match = matcher.matches(MockServerWebExchange.from(MockServerHttpRequest.get("/content/images/logo.png"))).block();
+        MatchResult notMatch = matcher.matches(MockServerWebExchange.from(MockServerHttpRequest.get("/contents"))).block();
+
+        assertThat(match.isMatch()).isTrue();
+        assertThat(notMatch.isMatch()).isFalse();
+    }
+
+    @Test
+    void classifiesTheClientRoutes() {
+        assertThat(SpaWebFilter.isClientRoute("/")).isTrue();
+        assertThat(SpaWebFilter.isClientRoute("/admin/user-management")).isTrue();
+        assertThat(SpaWebFilter.isClientRoute("/application")).isTrue();
+        assertThat(SpaWebFilter.isClientRoute("/api/account")).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("/services/car/api/cars")).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("/favicon.ico")).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("/admin\nlogs")).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("admin")).isFalse();
+        assertThat(SpaWebFilter.isClientRoute("")).isFalse();
+    }
+}
@@ -0,0 +1,203 @@
+package com.mycompany.myapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the {@link ResponseCacheGatewayFilterFactory}.
+ */
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String PATH = "/services/car/api/cars/1";
+
+    private static final String ETAG = "\"1\"";
+
+    private final AtomicInteger routed = new AtomicInteger();
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ResponseCacheGatewayFilterFactory(new ApplicationProperties(), new SimpleMeterRegistry()).apply(new Object());
+    }
+
+    @Test
+    void servesAFreshResponseFromTheCache() {
+        GatewayFilterChain service = service("max-age=60", null);
+
+        assertThat(body(get(PATH), service)).isEqualTo("car 1");
+        MockServerWebExchange cached = get(PATH);
+        assertThat(body(cached, service)).isEqualTo("car 1");
+
+        assertThat(routed).hasValue(1);
+        assertThat(cached.getResponse().getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("0");
+        assertThat(body(get(PATH + "?eager=true"), service)).isEqualTo("car 1");
+        assertThat(routed).hasValue(2);
+        body(MockServerWebExchange.from(MockServerHttpRequest.get(PATH).accept(MediaType.APPLICATION_NDJSON)), service);
+        assertThat(routed).hasValue(3);
+    }
+
+    @Test
+    void doesNotCacheWhatTheServiceForbids() {
+        GatewayFilterChain service = service("no-cache, no-store, max-age=0, must-revalidate", ETAG);
+
+        body(get(PATH), service);
+        body(get(PATH), service);
+
+        assertThat(routed).hasValue(2);
+    }
+
+    @Test
+    void cachesTheAuthenticatedResponsesPerAuthorities() {
+        GatewayFilterChain privateService = service("max-age=60", null);
+        body(as(get(PATH), "ROLE_USER"), privateService);
+        body(as(get(PATH), "ROLE_USER"), privateService);
+        assertThat(routed).hasValue(2);
+
+        GatewayFilterChain sharedService = service("max-age=0, s-maxage=60", null);
+        String path = PATH + "?shared=true";
+        body(as(get(path), "ROLE_USER"), sharedService);
+        body(as(get(path), "ROLE_USER"), sharedService);
+        assertThat(routed).hasValue(3);
+        body(as(get(path), "ROLE_ADMIN"), sharedService);
+        assertThat(routed).hasValue(4);
+    }
+
+    @Test
+    void revalidatesAStaleResponseWithItsETag() {
+        GatewayFilterChain service = service("no-cache", ETAG);
+
+        body(get(PATH), service);
+        MockServerWebExchange revalidated = get(PATH);
+        assertThat(body(revalidated, service)).isEqualTo("car 1");
+        MockServerWebExchange notModified = MockServerWebExchange.from(MockServerHttpRequest.get(PATH).ifNoneMatch(ETAG));
+        filter.filter(notModified, service).block();
+
+        assertThat(routed).hasValue(3);
+        assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(revalidated.getResponse().getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(notModified.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void routesConcurrentMissesOnceThroughTheSingleFlightFilter() {
+        GatewayFilterChain service = service("max-age=60", null);
+        MockServerWebExchange first = get(PATH);
+        MockServerWebExchange second = get(PATH);
+
+        routeConcurrentlyThroughTheSingleFlightFilter(first, second, service);
+
+        assertThat(routed).hasValue(1);
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo("car 1");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("car 1");
+        assertThat(body(get(PATH), service)).isEqualTo("car 1");
+        assertThat(routed).hasValue(1);
+    }
+
+    @Test
+    void routesConcurrentMissesOfUsersWithTheSameAuthoritiesOnceThroughTheSingleFlightFilter() {
+        GatewayFilterChain service = service("max-age=0, s-maxage=10", ETAG);
+        ServerWebExchange john = as(get(PATH), "john", "ROLE_USER");
+        ServerWebExchange jane = as(get(PATH), "jane", "ROLE_USER");
+
+        routeConcurrentlyThroughTheSingleFlightFilter(john, jane, service);
+
+        assertThat(routed).hasValue(1);
+        assertThat(((MockServerHttpResponse) john.getResponse()).getBodyAsString().block()).isEqualTo("car 1");
+        assertThat(((MockServerHttpResponse) jane.getResponse()).getBodyAsString().block()).isEqualTo("car 1");
+        assertThat(body(as(get(PATH), "jim", "ROLE_USER"), service)).isEqualTo("car 1");
+        assertThat(routed).hasValue(1);
+    }
+
+    /**
+     * Routes the first request slowly, so the second one misses the cache while the first one is routed.
+     */
+    private void routeConcurrentlyThroughTheSingleFlightFilter(
+        ServerWebExchange first,
+        ServerWebExchange second,
+        GatewayFilterChain service
+    ) {
+        GatewayFilter singleFlight = new SingleFlightGatewayFilterFactory(new ApplicationProperties(), new SimpleMeterRegistry()).apply(
+            new Object()
+        );
+        Sinks.Empty<Void> slowService = Sinks.empty();
+
+        Mono.when(
+            filter.filter(first, exchange ->
+                singleFlight.filter(exchange, slowly -> slowService.asMono().then(Mono.defer(() -> service.filter(slowly))))
+            ),
+            filter.filter(second, exchange -> singleFlight.filter(exchange, service)),
+            Mono.fromRunnable(slowService::tryEmitEmpty)
+        ).block();
+    }
+
+    @Test
+    void evictsTheResponsesAfterAnUnsafeRequest() {
+        GatewayFilterChain service = service("max-age=60", null);
+        body(get(PATH), service);
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.put(PATH)), exchange -> Mono.empty()).block();
+        body(get(PATH), service);
+
+        assertThat(routed).hasValue(2);
+    }
+
+    private String body(ServerWebExchange exchange, GatewayFilterChain service) {
+        filter.filter(exchange, service).block();
+        return ((MockServerHttpResponse) exchange.getResponse()).getBodyAsString().block();
+    }
+
+    private static MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    private static ServerWebExchange as(ServerWebExchange exchange, String authority) {
+        return as(exchange, "user", authority);
+    }
+
+    private static ServerWebExchange as(ServerWebExchange exchange, String login, String authority) {
+        return exchange.mutate().principal(Mono.just(new TestingAuthenticationToken(login, null, authority))).build();
+    }
+
+    /**
+     * A service answering with the car 1, or with {@code 304 Not Modified} when the request matches its entity tag.
+     */
+    private GatewayFilterChain service(String cacheControl, String eTag) {
+        return exchange -> {
+            routed.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.getHeaders().setCacheControl(cacheControl);
+            if (eTag != null) {
+                response.getHeaders().setETag(eTag);
+                if (exchange.getRequest().getHeaders().getIfNoneMatch().contains(eTag)) {
+                    response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                    return response.writeWith(Flux.empty());
+                }
+            }
+            byte[] body = "car 1".getBytes(StandardCharsets.UTF_8);
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentLength(body.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+}
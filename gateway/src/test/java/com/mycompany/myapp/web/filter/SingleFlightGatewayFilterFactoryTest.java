@@ -0,0 +1,215 @@
+package com.mycompany.myapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the {@link SingleFlightGatewayFilterFactory}.
+ */
+class SingleFlightGatewayFilterFactoryTest {
+
+    private static final String PATH = "/services/car/api/cars/1";
+
+    private final AtomicInteger routed = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SingleFlightGatewayFilterFactory(new ApplicationProperties(), meterRegistry).apply(new Object());
+    }
+
+    @Test
+    void sharesTheResponseOfTheFirstIdenticalRequest() {
+        Sinks.Empty<Void> slowService = Sinks.empty();
+        MockServerWebExchange first = get(PATH);
+        MockServerWebExchange second = get(PATH);
+        MockServerWebExchange third = get(PATH);
+
+        Mono.when(
+            filter.filter(first, slowly(slowService, service(true))),
+            filter.filter(second, service(true)),
+            filter.filter(third, service(true)),
+            Mono.fromRunnable(slowService::tryEmitEmpty)
+        ).block();
+
+        assertThat(routed).hasValue(1);
+        for (MockServerWebExchange exchange : new MockServerWebExchange[] { first, second, third }) {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("car 1");
+        }
+        assertThat(meterRegistry.get(SingleFlightGatewayFilterFactory.REQUESTS_METER_NAME).tag("outcome", "coalesced").counter().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get(SingleFlightGatewayFilterFactory.COALESCING_RATIO_METER_NAME).gauge().value()).isEqualTo(2.0 / 3);
+        assertThat(meterRegistry.get(SingleFlightGatewayFilterFactory.WAIT_METER_NAME).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void routesTheRequestsOfOtherUsersOnTheirOwn() {
+        Sinks.Empty<Void> slowService = Sinks.empty();
+
+        Mono.when(
+            filter.filter(as(get(PATH), "john"), slowly(slowService, service(true))),
+            filter.filter(as(get(PATH), "jane"), service(true)),
+            filter.filter(get(PATH + "?eager=true"), service(true)),
+            Mono.fromRunnable(slowService::tryEmitEmpty)
+        ).block();
+
+        assertThat(routed).hasValue(3);
+    }
+
+    @Test
+    void sharesTheResponseWithTheOtherUsersWhenTheServiceAllowsIt() {
+        Sinks.Empty<Void> slowService = Sinks.empty();
+        GatewayFilterChain service = exchange -> {
+            exchange.getResponse().getHeaders().setCacheControl("max-age=0, s-maxage=10");
+            return service(true).filter(exchange);
+        };
+        ServerWebExchange jane = as(get(PATH), "jane");
+
+        Mono.when(
+            filter.filter(as(get(PATH), "john"), slowly(slowService, service)),
+            filter.filter(jane, service),
+            Mono.fromRunnable(slowService::tryEmitEmpty)
+        ).block();
+
+        assertThat(routed).hasValue(1);
+        assertThat(((MockServerHttpResponse) jane.getResponse()).getBodyAsString().block()).isEqualTo("car 1");
+    }
+
+    @Test
+    void routesTheWaitingRequestsWhenTheResponseCannotBeShared() {
+        Sinks.Empty<Void> slowService = Sinks.empty();
+        MockServerWebExchange second = get(PATH);
+
+        Mono.when(
+            filter.filter(get(PATH), slowly(slowService, service(false))),
+            filter.filter(second, service(false)),
+            Mono.fromRunnable(slowService::tryEmitEmpty)
+        ).block();
+
+        assertThat(routed).hasValue(2);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("car 1");
+        assertThat(meterRegistry.get(SingleFlightGatewayFilterFactory.REQUESTS_METER_NAME).tag("outcome", "routed").counter().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get(SingleFlightGatewayFilterFactory.WAIT_METER_NAME).timer().count()).isZero();
+    }
+
+    @Test
+    void routesTheWaitingRequestsWhenTheFirstOneFailsBeforeItsResponse() {
+        Sinks.Empty<Void> slowService = Sinks.empty();
+        MockServerWebExchange second = get(PATH);
+
+        Mono.when(
+            filter
+                .filter(get(PATH), exchange -> slowService.asMono().then(Mono.error(new IllegalStateException("Connection refused"))))
+                .onErrorResume(IllegalStateException.class, e -> Mono.empty()),
+            filter.filter(second, service(true)),
+            Mono.fromRunnable(slowService::tryEmitEmpty)
+        ).block(Duration.ofSeconds(5));
+
+        assertThat(routed).hasValue(1);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("car 1");
+        assertThat(meterRegistry.get(SingleFlightGatewayFilterFactory.LEADER_FAILURES_METER_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SingleFlightGatewayFilterFactory.WAIT_METER_NAME).timer().count()).isZero();
+    }
+
+    @Test
+    void routesTheUpgradeRequestsOnTheirOwn() {
+        Sinks.Empty<Void> slowService = Sinks.empty();
+
+        Mono.when(
+            filter.filter(upgrade(PATH), slowly(slowService, service(true))),
+            filter.filter(upgrade(PATH), service(true)),
+            Mono.fromRunnable(slowService::tryEmitEmpty)
+        ).block();
+
+        assertThat(routed).hasValue(2);
+    }
+
+    @Test
+    void routesTheWaitingRequestsOnceTheResponseStartsWithoutWaitingForItsBody() {
+        Sinks.Many<DataBuffer> slowBody = Sinks.many().unicast().onBackpressureBuffer();
+        filter.filter(get(PATH), exchange -> exchange.getResponse().writeWith(slowBody.asFlux())).subscribe();
+        MockServerWebExchange second = get(PATH);
+
+        filter.filter(second, service(false)).block(Duration.ofSeconds(5));
+
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("car 1");
+        slowBody.tryEmitComplete();
+    }
+
+    @Test
+    void routesTheWaitingRequestsOnceAStreamedResponseStarts() {
+        Sinks.Many<DataBuffer> slowBody = Sinks.many().unicast().onBackpressureBuffer();
+        filter
+            .filter(get(PATH), exchange -> {
+                exchange.getResponse().getHeaders().setContentLength(5);
+                return exchange.getResponse().writeAndFlushWith(slowBody.asFlux().map(Mono::just));
+            })
+            .subscribe();
+        MockServerWebExchange second = get(PATH);
+
+        filter.filter(second, service(true)).block(Duration.ofSeconds(5));
+
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("car 1");
+        slowBody.tryEmitComplete();
+    }
+
+    private static MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    private static MockServerWebExchange upgrade(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).header(HttpHeaders.UPGRADE, "websocket"));
+    }
+
+    private static ServerWebExchange as(ServerWebExchange exchange, String login) {
+        return exchange.mutate().principal(Mono.just(new TestingAuthenticationToken(login, null, "ROLE_USER"))).build();
+    }
+
+    private static GatewayFilterChain slowly(Sinks.Empty<Void> slowService, GatewayFilterChain service) {
+        return exchange -> slowService.asMono().then(Mono.defer(() -> service.filter(exchange)));
+    }
+
+    /**
+     * A service answering with the car 1, streamed without {@code Content-Length} if it cannot be shared.
+     */
+    private GatewayFilterChain service(boolean shareable) {
+        return exchange -> {
+            routed.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            byte[] body = "car 1".getBytes(StandardCharsets.UTF_8);
+            response.setStatusCode(HttpStatus.OK);
+            if (shareable) {
+                response.getHeaders().setContentLength(body.length);
+            }
+            return response.writeWith(Flux.just(response.bufferFactory().wrap(body)));
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.mycompany.myapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the CPU time spent deciding whether a request is forwarded to the client {@code index.html}, with the regular
+ * expression previously used by the {@link SpaWebFilter}, and with its {@link PathPrefixMatcher}.
+ * <p>
+ * It is not part of the build, run it with {@code ./mvnw test -Dtest=SpaWebFilterBenchmark}.
+ */
+class SpaWebFilterBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpaWebFilterBenchmark.class);
+
+    private static final String[] PATHS = {
+        "/",
+        "/admin/user-management",
+        "/account/settings",
+        "/api/account",
+        "/services/car/api/cars",
+        "/management/health",
+        "/favicon.ico",
+        "/v3/api-docs/swagger-config",
+    };
+
+    private static final int WARM_UP_ITERATIONS = 200_000;
+
+    private static final int ITERATIONS = 1_000_000;
+
+    @Test
+    void classifyTheRequestPaths() {
+        long regexNanos = measure(SpaWebFilterBenchmark::isClientRouteWithRegex);
+        long matcherNanos = measure(SpaWebFilter::isClientRoute);
+
+        LOG.info("CPU time per path: {} ns with the regular expression, {} ns with the path prefix matcher", regexNanos, matcherNanos);
+        for (String path : PATHS) {
+            assertThat(SpaWebFilter.isClientRoute(path)).as(path).isEqualTo(isClientRouteWithRegex(path));
+        }
+    }
+
+    private static boolean isClientRouteWithRegex(String path) {
+        return (
+            !path.startsWith("/api") &&
+            !path.startsWith("/management") &&
+            !path.startsWith("/v3/api-docs") &&
+            !path.startsWith("/services") &&
+            !path.contains(".") &&
+            path.matches("/(.*)")
+        );
+    }
+
+    private static long measure(Predicate<String> classifier) {
+        int clientRoutes = 0;
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            clientRoutes += classifier.test(PATHS[i % PATHS.length]) ? 1 : 0;
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            clientRoutes += classifier.test(PATHS[i % PATHS.length]) ? 1 : 0;
+        }
+        long nanos = (threads.getCurrentThreadCpuTime() - start) / ITERATIONS;
+        LOG.debug("{} client routes", clientRoutes);
+        return nanos;
+    }
+}
@@ -0,0 +1,145 @@
+package com.mycompany.myapp.web.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+/**
+ * Test class for the {@link AdaptiveLoadBalancer} and its {@link InstanceStatistics}.
+ */
+class AdaptiveLoadBalancerTest {
+
+    private static final ServiceInstance FAST = new DefaultServiceInstance("car-1", "CAR", "localhost", 8081, false);
+
+    private static final ServiceInstance SLOW = new DefaultServiceInstance("car-2", "CAR", "localhost", 8082, false);
+
+    private static final List<ServiceInstance> INSTANCES = List.of(FAST, SLOW);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private MeterRegistry meterRegistry;
+
+    private InstanceStatistics statistics;
+
+    private AdaptiveLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        start(new ApplicationProperties());
+    }
+
+    private void start(ApplicationProperties applicationProperties) {
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new InstanceStatistics(applicationProperties, meterRegistry, nanoTime::get);
+        loadBalancer = new AdaptiveLoadBalancer("car", null, statistics);
+        route(FAST, 10, false);
+        route(SLOW, 100, false);
+    }
+
+    @Test
+    void prefersTheFasterInstance() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.choose(INSTANCES).getServer()).isEqualTo(FAST);
+        }
+    }
+
+    @Test
+    void spreadsTheRequestsInFlight() {
+        for (int i = 0; i < 20; i++) {
+            statistics.started(FAST);
+        }
+
+        assertThat(loadBalancer.choose(INSTANCES).getServer()).isEqualTo(SLOW);
+    }
+
+    @Test
+    void recoversGraduallyFromASlowResponse() {
+        route(FAST, 1000, false);
+        Duration elapsed = Duration.ZERO;
+        ServiceInstance chosen;
+        do {
+            chosen = loadBalancer.choose(INSTANCES).getServer();
+            route(chosen, chosen == FAST ? 10 : 100, false);
+            nanoTime.addAndGet(Duration.ofMillis(100).toNanos());
+            elapsed = elapsed.plusMillis(100);
+        } while (chosen != FAST && elapsed.compareTo(Duration.ofMinutes(1)) < 0);
+
+        assertThat(chosen).isEqualTo(FAST);
+        assertThat(elapsed).isGreaterThan(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void avoidsAnInstanceWhichFailsFast() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        // the instance is never ejected, so only its latency keeps the requests away
+        applicationProperties.getLoadBalancer().setErrorRateThreshold(1);
+        start(applicationProperties);
+
+        for (int i = 0; i < 60; i++) {
+            nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+            route(FAST, 10, false);
+            route(SLOW, 1, true);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.choose(INSTANCES).getServer()).isEqualTo(FAST);
+        }
+    }
+
+    @Test
+    void ejectsAnInstanceWhoseErrorRateSpikes() {
+        // the minimum number of requests is not reached yet
+        for (int i = 0; i < 8; i++) {
+            route(FAST, 10, true);
+        }
+        assertThat(statistics.isEjected(FAST)).isFalse();
+        route(FAST, 10, true);
+
+        assertThat(statistics.isEjected(FAST)).isTrue();
+        assertThat(loadBalancer.choose(INSTANCES).getServer()).isEqualTo(SLOW);
+
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        // meanwhile, the other instance got the requests and its latency did not decay
+        route(SLOW, 100, false);
+        assertThat(statistics.isEjected(FAST)).isFalse();
+        assertThat(loadBalancer.choose(INSTANCES).getServer()).isEqualTo(FAST);
+    }
+
+    @Test
+    void routesToTheEjectedInstancesWhenAllAre() {
+        for (int i = 0; i < 10; i++) {
+            route(FAST, 10, true);
+        }
+
+        assertThat(loadBalancer.choose(List.of(FAST)).getServer()).isEqualTo(FAST);
+    }
+
+    @Test
+    void publishesTheScoresOfTheRegisteredInstances() {
+        loadBalancer.choose(INSTANCES);
+
+        assertThat(meterRegistry.get(InstanceStatistics.SCORE_METER_NAME).tag("service", "car").tag("instance", "car-1").gauge().value())
+            .isEqualTo(statistics.score(FAST));
+        assertThat(meterRegistry.get(InstanceStatistics.LATENCY_METER_NAME).tag("instance", "car-2").gauge().value()).isEqualTo(0.1);
+
+        loadBalancer.choose(List.of(FAST));
+
+        assertThat(meterRegistry.find(InstanceStatistics.SCORE_METER_NAME).tag("instance", "car-2").gauge()).isNull();
+        assertThat(meterRegistry.find(InstanceStatistics.SCORE_METER_NAME).tag("instance", "car-1").gauge()).isNotNull();
+    }
+
+    private void route(ServiceInstance instance, long latencyMillis, boolean failed) {
+        statistics.started(instance);
+        statistics.completed(instance, TimeUnit.MILLISECONDS.toNanos(latencyMillis), failed);
+    }
+}
@@ -0,0 +1,109 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.repository.AuthorityRepository;
+import com.mycompany.myapp.service.AuthorityRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the transactions of the {@link AuthorityResource}.
+ */
+class AuthorityResourceTest {
+
+    private static final String AUTHORITY = "ROLE_MANAGER";
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+
+    private AuthorityResource authorityResource;
+
+    @BeforeEach
+    void setUp() {
+        AuthorityRepository authorityRepository = mock(AuthorityRepository.class);
+        when(authorityRepository.existsById(AUTHORITY)).thenReturn(Mono.just(false));
+        when(authorityRepository.save(any(Authority.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(authorityRepository.deleteById(AUTHORITY)).thenReturn(Mono.empty());
+        AuthorityRegistry authorityRegistry = mock(AuthorityRegistry.class);
+        doAnswer(invocation -> events.add("put")).when(authorityRegistry).put(AUTHORITY);
+        doAnswer(invocation -> events.add("remove")).when(authorityRegistry).remove(AUTHORITY);
+        ProxyFactory proxyFactory = new ProxyFactory(new AuthorityResource(authorityRepository, authorityRegistry));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        authorityResource = (AuthorityResource) proxyFactory.getProxy();
+    }
+
+    @Test
+    void changesTheRegistryAfterTheCommit() throws Exception {
+        authorityResource.createAuthority(new Authority().name(AUTHORITY)).block();
+        authorityResource.deleteAuthority(AUTHORITY).block();
+
+        assertThat(events).containsExactly("commit", "put", "commit", "remove");
+    }
+
+    @Test
+    void leavesTheRegistryWhenTheCommitFails() {
+        transactionManager.failCommits = true;
+
+        assertThatThrownBy(() -> authorityResource.createAuthority(new Authority().name(AUTHORITY)).block()).isInstanceOf(
+            TransactionSystemException.class
+        );
+        assertThatThrownBy(() -> authorityResource.deleteAuthority(AUTHORITY).block()).isInstanceOf(TransactionSystemException.class);
+
+        assertThat(events).doesNotContain("put", "remove");
+    }
+
+    /**
+     * A transaction manager without resources, recording the commits.
+     */
+    private final class RecordingTransactionManager extends AbstractReactiveTransactionManager {
+
+        private volatile boolean failCommits;
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(
+            TransactionSynchronizationManager synchronizationManager,
+            Object transaction,
+            TransactionDefinition definition
+        ) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            if (failCommits) {
+                return Mono.error(new TransactionSystemException("Connection lost"));
+            }
+            return Mono.fromRunnable(() -> events.add("commit"));
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.web.rest.vm.RouteVM;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Test class for the {@link RouteSnapshot}.
+ */
+class RouteSnapshotTest {
+
+    private static final ServiceInstance CAR_INSTANCE = new DefaultServiceInstance("car-1", "car", "localhost", 8081, false);
+
+    private RouteLocator routeLocator;
+
+    private DiscoveryClient discoveryClient;
+
+    private RouteSnapshot routeSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        routeLocator = mock(RouteLocator.class);
+        discoveryClient = mock(DiscoveryClient.class);
+        when(routeLocator.getRoutes()).thenReturn(Flux.just(route("gateway"), route("car")));
+        when(discoveryClient.getInstances("car")).thenReturn(List.of(CAR_INSTANCE));
+        // the snapshot is rebuilt on the thread of the refresh
+        routeSnapshot = new RouteSnapshot(routeLocator, discoveryClient, "gateway", Schedulers.immediate());
+    }
+
+    @Test
+    void buildsTheRoutesOfTheOtherServices() {
+        List<RouteVM> routes = routeSnapshot.getRoutes().block();
+
+        assertThat(routes).singleElement().satisfies(route -> {
+            assertThat(route.getPath()).isEqualTo("/services/car/**");
+            assertThat(route.getServiceId()).isEqualTo("car");
+            assertThat(route.getServiceInstances()).containsExactly(CAR_INSTANCE);
+        });
+    }
+
+    @Test
+    void servesTheSnapshotUntilTheNextRefresh() {
+        routeSnapshot.getRoutes().block();
+        routeSnapshot.getRoutes().block();
+        verify(routeLocator, times(1)).getRoutes();
+        verify(discoveryClient, times(1)).getInstances("car");
+
+        ServiceInstance newInstance = new DefaultServiceInstance("car-2", "car", "localhost", 8082, false);
+        when(discoveryClient.getInstances("car")).thenReturn(List.of(CAR_INSTANCE, newInstance));
+        routeSnapshot.refresh();
+
+        assertThat(routeSnapshot.getRoutes().block().get(0).getServiceInstances()).containsExactly(CAR_INSTANCE, newInstance);
+        verify(routeLocator, times(2)).getRoutes();
+    }
+
+    private static Route route(String serviceId) {
+        return Route.async()
+            .id("ReactiveCompositeDiscoveryClient_" + serviceId.toUpperCase())
+            .uri("lb://" + serviceId)
+            .predicate(new PathRoutePredicateFactory().apply(config -> config.setPatterns(List.of("/services/" + serviceId + "/**"))))
+            .build();
+    }
+}
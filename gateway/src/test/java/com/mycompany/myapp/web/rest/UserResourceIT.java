@@ -5,12 +5,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mycompany.myapp.IntegrationTest;
 import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.Authority;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.AuthorityRepository;
 import com.mycompany.myapp.repository.EntityManager;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
+import com.mycompany.myapp.service.dto.UserImportProgressDTO;
 import com.mycompany.myapp.service.mapper.UserMapper;
 import java.util.*;
 import java.util.function.Consumer;
@@ -153,6 +155,114 @@ class UserResourceIT {
         assertThat(convertedUser.getLangKey()).isEqualTo(DEFAULT_LANGKEY);
     }
 
+    @Test
+    void importUsers() throws Exception {
+        // Initialize the database
+        userRepository.save(user).block();
+
+        AdminUserDTO firstUserDTO = new AdminUserDTO();
+        firstUserDTO.setLogin("bulk-1");
+        firstUserDTO.setEmail("bulk-1@localhost");
+        firstUserDTO.setAuthorities(Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+        AdminUserDTO existingUserDTO = new AdminUserDTO();
+        existingUserDTO.setLogin(DEFAULT_LOGIN); // this login should already be used
+        existingUserDTO.setEmail("bulk-2@localhost");
+        AdminUserDTO secondUserDTO = new AdminUserDTO();
+        secondUserDTO.setLogin("bulk-3");
+        secondUserDTO.setEmail("bulk-3@localhost");
+        secondUserDTO.setLangKey(UPDATED_LANGKEY);
+        String body = String.join(
+            "\n",
+            om.writeValueAsString(firstUserDTO),
+            om.writeValueAsString(existingUserDTO),
+            om.writeValueAsString(secondUserDTO)
+        );
+
+        List<UserImportProgressDTO> progress = webTestClient
+            .post()
+            .uri("/api/admin/users/bulk")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .bodyValue(body)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(UserImportProgressDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        // The chunk size is 2 in the tests
+        assertThat(progress).hasSize(2);
+        assertThat(progress.get(0).getImported()).isEqualTo(1);
+        assertThat(progress.get(0).getSkipped()).isEqualTo(1);
+        assertThat(progress.get(0).getErrors()).singleElement().asString().contains("Row 2").contains("login already used");
+        assertThat(progress.get(1).getTotalImported()).isEqualTo(2);
+        assertThat(progress.get(1).getTotalSkipped()).isEqualTo(1);
+
+        User firstUser = userRepository.findOneWithAuthoritiesByLogin("bulk-1").block();
+        assertThat(firstUser.isActivated()).isTrue();
+        assertThat(firstUser.getLangKey()).isEqualTo(Constants.DEFAULT_LANGUAGE);
+        assertThat(firstUser.getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+        User secondUser = userRepository.findOneWithAuthoritiesByLogin("bulk-3").block();
+        assertThat(secondUser.getLangKey()).isEqualTo(UPDATED_LANGKEY);
+        assertThat(secondUser.getAuthorities()).isEmpty();
+        assertThat(userRepository.findOneByEmailIgnoreCase("bulk-2@localhost").blockOptional()).isEmpty();
+    }
+
+    @Test
+    void importUsersFromCsv() {
+        String body = """
+            login,email,firstName,authorities
+            bulk-1,bulk-1@localhost,"Doe, John",ROLE_USER;ROLE_ADMIN
+            bulk-2,not-an-email,Jane,ROLE_USER
+            bulk-3,bulk-3@localhost,Jack,
+            """;
+
+        List<UserImportProgressDTO> progress = webTestClient
+            .post()
+            .uri("/api/admin/users/bulk")
+            .contentType(MediaType.parseMediaType("text/csv"))
+            .accept(MediaType.APPLICATION_NDJSON)
+            .bodyValue(body)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(UserImportProgressDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertThat(progress).hasSize(2);
+        assertThat(progress.get(0).getErrors()).singleElement().asString().contains("Row 2").contains("email");
+        assertThat(progress.get(1).getTotalImported()).isEqualTo(2);
+        assertThat(progress.get(1).getTotalSkipped()).isEqualTo(1);
+
+        User firstUser = userRepository.findOneWithAuthoritiesByLogin("bulk-1").block();
+        assertThat(firstUser.getFirstName()).isEqualTo("Doe, John");
+        assertThat(firstUser.getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+        assertThat(userRepository.findOneByLogin("bulk-3").blockOptional()).isPresent();
+    }
+
+    @Test
+    void importUsersFromCsvWithUnknownColumn() {
+        webTestClient
+            .post()
+            .uri("/api/admin/users/bulk")
+            .contentType(MediaType.parseMediaType("text/csv"))
+            .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_PROBLEM_JSON)
+            .bodyValue("login,password\nbulk-1,secret\n")
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        assertThat(userRepository.findOneByLogin("bulk-1").blockOptional()).isEmpty();
+    }
+
     @Test
     void createUserWithExistingId() throws Exception {
         int databaseSizeBeforeCreate = userRepository.findAll().collectList().block().size();
@@ -268,6 +378,33 @@ class UserResourceIT {
         assertThat(foundUser.getLangKey()).isEqualTo(DEFAULT_LANGKEY);
     }
 
+    @Test
+    void getAllUsersSortedAndPaged() {
+        // Initialize the database
+        for (String suffix : List.of("a", "b", "c")) {
+            User pagedUser = createEntity();
+            pagedUser.setLogin("zzz-paged-" + suffix);
+            User savedUser = userRepository.save(pagedUser).block();
+            userRepository.saveUserAuthority(savedUser.getId(), AuthoritiesConstants.USER).block();
+        }
+
+        // Get the second page of the users sorted by login
+        List<AdminUserDTO> foundUsers = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=login,desc&page=1&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(AdminUserDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+        assertThat(foundUsers).hasSize(1);
+        assertThat(foundUsers.get(0).getLogin()).isEqualTo("zzz-paged-b");
+        assertThat(foundUsers.get(0).getAuthorities()).containsExactly(AuthoritiesConstants.USER);
+    }
+
     @Test
     void getUser() {
         // Initialize the database